@@ -1,8 +1,13 @@
 package org.neighbor21.slkaMobileEquipApi.config;
 
+import org.neighbor21.slkaMobileEquipApi.service.util.ConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -11,17 +16,89 @@ import java.util.concurrent.Executors;
  * fileName       : ExecutorConfig.java
  * author         : kjg08
  * date           : 24. 7. 8.
- * description    :
+ * description    : 장소별 작업을 실행할 실행기와 동시 실행 제한을 설정하는 클래스.
+ * executor.mode=virtual 이고 JDK 21 이상이면 장소마다 가상 스레드를 사용하고, 그 외에는 고정 크기 플랫폼 스레드 풀을 사용한다.
  * ===========================================================
  * DATE              AUTHOR             NOTE
  * -----------------------------------------------------------
  * 24. 7. 8.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           가상 스레드 모드, 세마포어 기반 동시 실행 제한 추가
+ * 26. 10. 18.        kjg08           work-stealing(ForkJoinPool) 모드 추가
+ * 26. 10. 18.        kjg08           work-stealing(ForkJoinPool) 모드 제거(장소 작업을 나누지 않아 고정 크기 풀과 차이 없음)
  */
 @Configuration
 public class ExecutorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+    // 스케줄러, JPA 작업 등이 사용할 수 있도록 남겨두는 커넥션 수
+    private static final int RESERVED_DB_CONNECTIONS = 2;
+
+    @Value("${executor.mode:platform}") // platform | virtual
+    private String executorMode;
+
+    @Value("${executor.platform.pool-size:10}")
+    private int platformPoolSize;
+
+    @Value("${scheduler.vehicles.parallel.max-in-flight:10}")
+    private int apiConcurrency;
+
+    @Value("${executor.db.max-concurrency:8}")
+    private int dbConcurrency;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int hikariMaximumPoolSize;
+
+    private boolean virtualThreads = false;
 
     @Bean
     public ExecutorService executorService() {
-        return Executors.newFixedThreadPool(10);
+        if ("virtual".equalsIgnoreCase(executorMode)) {
+            ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualExecutor != null) {
+                virtualThreads = true;
+                logger.info("Using virtual-thread-per-task executor");
+                return virtualExecutor;
+            }
+            logger.warn("executor.mode=virtual requires JDK 21 or later (running {}), falling back to {} platform threads",
+                    Runtime.version(), platformPoolSize);
+        } else if (!"platform".equalsIgnoreCase(executorMode)) {
+            logger.warn("Unknown executor.mode={}, using {} platform threads", executorMode, platformPoolSize);
+        }
+        return Executors.newFixedThreadPool(platformPoolSize);
+    }
+
+    /**
+     * API 호출 수와 DB 커넥션 사용 수를 제한하는 세마포어를 Bean으로 정의합니다.
+     * DB 동시 사용 수는 Hikari 최대 풀 크기를 넘지 않도록 보정한다.
+     *
+     * @param executorService 장소별 작업 실행기(가상 스레드 사용 여부 결정 후 생성되도록 주입)
+     * @return ConcurrencyLimiter 객체
+     */
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(ExecutorService executorService) {
+        int dbLimit = Math.max(1, hikariMaximumPoolSize - RESERVED_DB_CONNECTIONS);
+        if (dbConcurrency > dbLimit) {
+            logger.warn("executor.db.max-concurrency={} exceeds Hikari maximum-pool-size {} minus {} reserved, using {}",
+                    dbConcurrency, hikariMaximumPoolSize, RESERVED_DB_CONNECTIONS, dbLimit);
+        }
+        // 가상 스레드 모드는 장소 작업을 모두 제출하고 실제 동시 호출 수는 세마포어로 제한
+        int window = virtualThreads ? Integer.MAX_VALUE : platformPoolSize;
+        return new ConcurrencyLimiter(apiConcurrency, Math.min(dbConcurrency, dbLimit), window);
+    }
+
+    /**
+     * JDK 21 의 Executors.newVirtualThreadPerTaskExecutor 를 리플렉션으로 호출한다. JDK 17 에서는 null 을 반환한다.
+     *
+     * @return 가상 스레드 실행기 또는 null
+     */
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Failed to create virtual-thread executor", e);
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package org.neighbor21.slkaMobileEquipApi.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import kong.unirest.UnirestParsingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.config
+ * fileName       : ResilienceConfig.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ATLYST API(list_sites, individual_vehicles)와 DB 에 대한 CircuitBreaker/Bulkhead 를 설정하는 클래스.
+ * 의존 대상이 느려지거나 실패하면 CircuitBreaker 가 열려서 남은 장소는 타임아웃을 기다리지 않고 바로 실패하고(CallNotPermittedException),
+ * Bulkhead 는 동시 호출 수를 제한하고 정해진 시간 안에 자리가 나지 않으면 바로 실패한다(BulkheadFullException). 두 예외는 재시도하지 않는다.
+ * 설정은 resilience.{list-sites|individual-vehicles|db}.circuit-breaker.* / bulkhead.* 로 대상별로 지정한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           바디를 읽는 중 발생한 전송 오류(시간 초과, 연결 끊김, 잘린 gzip)도 ATLYST 장애로 집계
+ */
+@Configuration
+public class ResilienceConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    public static final String LIST_SITES = "list-sites";
+    public static final String INDIVIDUAL_VEHICLES = "individual-vehicles";
+    public static final String DB = "db";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return BulkheadRegistry.ofDefaults();
+    }
+
+    @Bean
+    public CircuitBreaker listSitesCircuitBreaker(CircuitBreakerRegistry registry) {
+        return circuitBreaker(registry, LIST_SITES, ResilienceConfig::isApiFailure);
+    }
+
+    @Bean
+    public CircuitBreaker individualVehiclesCircuitBreaker(CircuitBreakerRegistry registry) {
+        return circuitBreaker(registry, INDIVIDUAL_VEHICLES, ResilienceConfig::isApiFailure);
+    }
+
+    @Bean
+    public CircuitBreaker dbCircuitBreaker(CircuitBreakerRegistry registry) {
+        return circuitBreaker(registry, DB, ResilienceConfig::isDbFailure);
+    }
+
+    @Bean
+    public Bulkhead listSitesBulkhead(BulkheadRegistry registry) {
+        return bulkhead(registry, LIST_SITES);
+    }
+
+    @Bean
+    public Bulkhead individualVehiclesBulkhead(BulkheadRegistry registry) {
+        return bulkhead(registry, INDIVIDUAL_VEHICLES);
+    }
+
+    @Bean
+    public Bulkhead dbBulkhead(BulkheadRegistry registry) {
+        return bulkhead(registry, DB);
+    }
+
+    /**
+     * 대상별 설정으로 CircuitBreaker 를 만들고 상태가 바뀔 때마다 로그를 남긴다.
+     */
+    private CircuitBreaker circuitBreaker(CircuitBreakerRegistry registry, String name, Predicate<Throwable> recordFailure) {
+        String prefix = "resilience." + name + ".circuit-breaker.";
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(property(prefix + "sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(property(prefix + "minimum-calls", Integer.class, 10))
+                .failureRateThreshold(property(prefix + "failure-rate-threshold", Float.class, 50f))
+                .slowCallRateThreshold(property(prefix + "slow-call-rate-threshold", Float.class, 100f))
+                .slowCallDurationThreshold(Duration.ofMillis(property(prefix + "slow-call-ms", Long.class, 60000L)))
+                .waitDurationInOpenState(Duration.ofMillis(property(prefix + "wait-open-ms", Long.class, 60000L)))
+                .permittedNumberOfCallsInHalfOpenState(property(prefix + "half-open-calls", Integer.class, 3))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(recordFailure)
+                .build();
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(name, config);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("Circuit breaker {} changed state: {}", event.getCircuitBreakerName(), event.getStateTransition()));
+        logger.info("Circuit breaker {}: window {}, failure rate {}%, slow call {} ms, open {} ms", name,
+                config.getSlidingWindowSize(), config.getFailureRateThreshold(),
+                config.getSlowCallDurationThreshold().toMillis(), property(prefix + "wait-open-ms", Long.class, 60000L));
+        return circuitBreaker;
+    }
+
+    /**
+     * 대상별 설정으로 Bulkhead 를 만든다.
+     */
+    private Bulkhead bulkhead(BulkheadRegistry registry, String name) {
+        String prefix = "resilience." + name + ".bulkhead.";
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(property(prefix + "max-concurrent", Integer.class, 20))
+                .maxWaitDuration(Duration.ofMillis(property(prefix + "max-wait-ms", Long.class, 10000L)))
+                .build();
+        logger.info("Bulkhead {}: max concurrent {}, max wait {} ms", name, config.getMaxConcurrentCalls(), config.getMaxWaitDuration().toMillis());
+        return registry.bulkhead(name, config);
+    }
+
+    private <T> T property(String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(key, type, defaultValue);
+    }
+
+    /**
+     * ATLYST 장애로 볼 예외. 응답 형식 오류(JSON 파싱 실패)와 저장 쪽 취소(CancellationException)는 서버 가용성과 무관하므로 제외한다.
+     * Unirest 는 바디를 읽는 함수가 던진 예외를 모두 UnirestParsingException 으로 감싸므로, 원인을 꺼내서
+     * 읽는 중 발생한 전송 오류(소켓 시간 초과, 연결 리셋, 잘린 gzip 등 IOException)는 장애로 센다.
+     */
+    static boolean isApiFailure(Throwable throwable) {
+        if (!(throwable instanceof UnirestParsingException)) {
+            return true;
+        }
+        Throwable cause = throwable.getCause();
+        if (cause instanceof UncheckedIOException unchecked) {
+            cause = unchecked.getCause();
+        }
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    /**
+     * DB 장애로 볼 예외. 제약 조건 위반 같은 데이터 오류는 제외하고 연결/자원/가용성 오류만 센다.
+     * (SQLState 08: 연결 오류, 53: 자원 부족, 57: 운영자 개입(종료, 취소 등))
+     */
+    private static boolean isDbFailure(Throwable throwable) {
+        if (throwable instanceof SQLTransientException || throwable instanceof SQLRecoverableException) {
+            return true;
+        }
+        if (throwable instanceof SQLException sqlException) {
+            String state = sqlException.getSQLState();
+            return state == null || state.startsWith("08") || state.startsWith("53") || state.startsWith("57");
+        }
+        return true;
+    }
+}
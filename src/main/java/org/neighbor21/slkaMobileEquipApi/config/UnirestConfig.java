@@ -1,5 +1,8 @@
 package org.neighbor21.slkaMobileEquipApi.config;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import jakarta.annotation.PostConstruct;
@@ -8,8 +11,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
-
 /**
  * packageName    : org.neighbor21.slkaMobileEquipApi.config
  * fileName       : UnirestConfig.java
@@ -20,6 +21,7 @@ import java.time.Duration;
  * DATE              AUTHOR             NOTE
  * -----------------------------------------------------------
  * 2024-05-10        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           재시도 간격을 지터가 있는 지수 백오프로 변경, CircuitBreaker/Bulkhead 거부는 재시도하지 않음
  */
 
 @Configuration
@@ -31,6 +33,36 @@ public class UnirestConfig {
     @Value("${api.timeout.socket}") // application.properties 파일에서 socketTimeout 값을 주입받음
     private int socketTimeout;
 
+    @Value("${resilience.api.retry.max-attempts:2}")
+    private int apiMaxAttempts;
+
+    @Value("${resilience.api.retry.initial-wait-ms:1000}")
+    private long apiInitialWaitMs;
+
+    @Value("${resilience.api.retry.multiplier:2.0}")
+    private double apiMultiplier;
+
+    @Value("${resilience.api.retry.randomization-factor:0.5}")
+    private double apiRandomizationFactor;
+
+    @Value("${resilience.api.retry.max-wait-ms:10000}")
+    private long apiMaxWaitMs;
+
+    @Value("${resilience.db.retry.max-attempts:2}")
+    private int dbMaxAttempts;
+
+    @Value("${resilience.db.retry.initial-wait-ms:2000}")
+    private long dbInitialWaitMs;
+
+    @Value("${resilience.db.retry.multiplier:2.0}")
+    private double dbMultiplier;
+
+    @Value("${resilience.db.retry.randomization-factor:0.5}")
+    private double dbRandomizationFactor;
+
+    @Value("${resilience.db.retry.max-wait-ms:20000}")
+    private long dbMaxWaitMs;
+
     /**
      * Retry 객체를 Bean으로 정의합니다.
      *
@@ -38,11 +70,7 @@ public class UnirestConfig {
      */
     @Bean
     public Retry apiRetry() {
-        RetryConfig config = RetryConfig.custom()
-                .maxAttempts(2)  // 최대 시도 횟수
-                .waitDuration(Duration.ofMillis(1000))  // 시도 간 대기 시간
-                .build();
-        return Retry.of("apiRetry", config);
+        return Retry.of("apiRetry", retryConfig(apiMaxAttempts, apiInitialWaitMs, apiMultiplier, apiRandomizationFactor, apiMaxWaitMs));
     }
 
     /**
@@ -52,11 +80,26 @@ public class UnirestConfig {
      */
     @Bean
     public Retry dbRetry() {
-        RetryConfig config = RetryConfig.custom()
-                .maxAttempts(2)  // 최대 시도 횟수
-                .waitDuration(Duration.ofMillis(2000))  // 시도 간 대기 시간
+        return Retry.of("dbRetry", retryConfig(dbMaxAttempts, dbInitialWaitMs, dbMultiplier, dbRandomizationFactor, dbMaxWaitMs));
+    }
+
+    /**
+     * 지수 백오프에 무작위 지터를 더한 재시도 설정. 여러 장소 작업이 같은 시각에 한꺼번에 재시도하지 않도록 대기 시간을 흩뜨린다.
+     * CircuitBreaker 가 열려 있거나 Bulkhead 가 가득 찬 경우는 기다려도 바로 풀리지 않으므로 재시도하지 않는다.
+     *
+     * @param maxAttempts         최대 시도 횟수
+     * @param initialWaitMs       첫 재시도 전 대기 시간(ms)
+     * @param multiplier          재시도마다 대기 시간에 곱할 배수
+     * @param randomizationFactor 대기 시간을 ± 이 비율만큼 무작위로 흔든다
+     * @param maxWaitMs           최대 대기 시간(ms)
+     * @return RetryConfig
+     */
+    private RetryConfig retryConfig(int maxAttempts, long initialWaitMs, double multiplier, double randomizationFactor, long maxWaitMs) {
+        return RetryConfig.custom()
+                .maxAttempts(maxAttempts)  // 최대 시도 횟수
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(initialWaitMs, multiplier, randomizationFactor, maxWaitMs))
+                .ignoreExceptions(CallNotPermittedException.class, BulkheadFullException.class)
                 .build();
-        return Retry.of("dbRetry", config);
     }
 
     /**
@@ -0,0 +1,147 @@
+package org.neighbor21.slkaMobileEquipApi.dto.individualVehicles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.dto.individualVehicles
+ * fileName       : VehiclePassChunk.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 한 장소의 개별 차량 통과 기록 묶음을 기본형 배열(컬럼 단위)로 담는 클래스.
+ * 차량 한 건마다 IndividualVehiclesDTO, TL_MVMNEQ_PASSEntity, Timestamp, BigDecimal 객체를 만들지 않기 위해
+ * 시간은 epoch 밀리초(long), 속도/길이는 소수점 2자리까지 100배한 정수(int), 방향/차종은 intern 된 문자열로 보관한다.
+ * JSON 에서 바로 채워지고 tl_mvmneq_pass 의 PreparedStatement 에 바로 바인딩된다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class VehiclePassChunk {
+    // 속도/길이 값이 없음(null)을 나타내는 값
+    public static final int NULL_SCALED = Integer.MIN_VALUE;
+    // 속도/길이 값의 소수점 자리수
+    public static final int SCALE = 2;
+
+    private final Integer siteId;
+    private final String instllcId;
+    private final long[] passTimeMillis;
+    private final String[] headings;
+    private final int[] laneIndexes;
+    private final int[] speedScaled;
+    private final int[] lengthScaled;
+    private final String[] vehicleClasses;
+    private final int[] intervalSeconds;
+    private int size = 0;
+
+    /**
+     * VehiclePassChunk 생성자.
+     *
+     * @param siteId   장소 ID
+     * @param capacity 최대 건수
+     */
+    public VehiclePassChunk(Integer siteId, int capacity) {
+        this.siteId = siteId;
+        this.instllcId = siteId.toString();
+        this.passTimeMillis = new long[capacity];
+        this.headings = new String[capacity];
+        this.laneIndexes = new int[capacity];
+        this.speedScaled = new int[capacity];
+        this.lengthScaled = new int[capacity];
+        this.vehicleClasses = new String[capacity];
+        this.intervalSeconds = new int[capacity];
+    }
+
+    /**
+     * 차량 한 건을 추가한다.
+     *
+     * @param passTime     통과 시간(epoch 밀리초)
+     * @param heading      차량 방향(intern 된 문자열)
+     * @param laneIndex    차선
+     * @param speed        속도(m/s) * 100, 없으면 NULL_SCALED
+     * @param length       길이(m) * 100, 없으면 NULL_SCALED
+     * @param vehicleClass 차종(intern 된 문자열)
+     */
+    public void add(long passTime, String heading, int laneIndex, int speed, int length, String vehicleClass) {
+        int i = size++;
+        passTimeMillis[i] = passTime;
+        headings[i] = heading;
+        laneIndexes[i] = laneIndex;
+        speedScaled[i] = speed;
+        lengthScaled[i] = length;
+        vehicleClasses[i] = vehicleClass;
+    }
+
+    public boolean isFull() {
+        return size == passTimeMillis.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Integer getSiteId() {
+        return siteId;
+    }
+
+    public String getInstllcId() {
+        return instllcId;
+    }
+
+    public long getPassTime(int i) {
+        return passTimeMillis[i];
+    }
+
+    public String getHeading(int i) {
+        return headings[i];
+    }
+
+    public int getLaneIndex(int i) {
+        return laneIndexes[i];
+    }
+
+    public int getSpeedScaled(int i) {
+        return speedScaled[i];
+    }
+
+    public int getLengthScaled(int i) {
+        return lengthScaled[i];
+    }
+
+    public String getVehicleClass(int i) {
+        return vehicleClasses[i];
+    }
+
+    public int getIntervalSeconds(int i) {
+        return intervalSeconds[i];
+    }
+
+    public void setIntervalSeconds(int i, int seconds) {
+        intervalSeconds[i] = seconds;
+    }
+
+    /**
+     * 마지막 차량의 통과 시간
+     *
+     * @return epoch 밀리초, 비어 있으면 Long.MIN_VALUE
+     */
+    public long getLastPassTime() {
+        return size == 0 ? Long.MIN_VALUE : passTimeMillis[size - 1];
+    }
+
+    /**
+     * 100배한 정수 값을 BigDecimal 로 변환한다.
+     *
+     * @param scaled 100배한 정수 값
+     * @return BigDecimal 값, NULL_SCALED 이면 null
+     */
+    public static BigDecimal toDecimal(int scaled) {
+        return scaled == NULL_SCALED ? null : BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return "VehiclePassChunk{siteId=" + siteId + ", size=" + size + ", passTimes=" +
+                Arrays.toString(Arrays.copyOf(passTimeMillis, Math.min(size, 3))) + "...}";
+    }
+}
@@ -0,0 +1,39 @@
+package org.neighbor21.slkaMobileEquipApi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.entity
+ * fileName       : TL_MVMNEQ_WATERMARKEntity.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 이동형장비 설치위치별 마지막 저장 차량 통과 시간(watermark) TL_MVMNEQ_WATERMARK 테이블 엔티티.
+ * 테이블 생성(ddl-auto)용이며, 값은 BatchService 가 tl_mvmneq_pass 삽입과 같은 트랜잭션에서 JDBC 로 upsert 한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "TL_MVMNEQ_WATERMARK", schema = "srlk")
+public class TL_MVMNEQ_WATERMARKEntity {
+
+    @Id
+    @Column(name = "INSTLLC_ID", length = 32)
+    private String instllcId;  // 설치 위치 아이디
+
+    @Column(name = "LAST_PASS_DT", nullable = false)
+    private Timestamp lastPassTime;  // 마지막으로 저장된 통행 일시
+
+    @Column(name = "UPDT_DT")
+    private Timestamp updateDatetime;  // 갱신 일시
+}
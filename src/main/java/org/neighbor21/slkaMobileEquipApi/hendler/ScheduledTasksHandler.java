@@ -1,20 +1,34 @@
 package org.neighbor21.slkaMobileEquipApi.hendler;
 
 import io.github.resilience4j.retry.Retry;
+import io.vavr.CheckedFunction0;
 import jakarta.annotation.PostConstruct;
 import kong.unirest.UnirestException;
 import org.neighbor21.slkaMobileEquipApi.config.Constants;
 import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.IndividualVehiclesDTO;
 import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
+import org.neighbor21.slkaMobileEquipApi.service.BatchService;
 import org.neighbor21.slkaMobileEquipApi.service.MCATLYSTApiService;
+import org.neighbor21.slkaMobileEquipApi.service.client.AtlystHttpClient;
+import org.neighbor21.slkaMobileEquipApi.service.codec.AtlystJsonCodec;
 import org.neighbor21.slkaMobileEquipApi.service.conversion.SiteService;
 import org.neighbor21.slkaMobileEquipApi.service.conversion.SurveyPeriodService;
 import org.neighbor21.slkaMobileEquipApi.service.conversion.VehiclePassService;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.AdaptivePollScheduler;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.CatchUpPager;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.SiteFetchExecutor;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.SiteRetryQueue;
+import org.neighbor21.slkaMobileEquipApi.service.util.CycleCoordinator;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.ResilienceMonitor;
+import org.neighbor21.slkaMobileEquipApi.service.util.SiteFingerprintCache;
+import org.neighbor21.slkaMobileEquipApi.service.util.SurveyWindowIndex;
 import org.neighbor21.slkaMobileEquipApi.service.util.VehicleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +36,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -35,10 +51,28 @@ import java.util.stream.Collectors;
  * -----------------------------------------------------------
  * 24. 4. 22.        kjg08           최초 생성
  * 24. 5. 17.        kjg08            주석 추가 및 description 갱신
+ * 26. 10. 18.        kjg08            장소별 개별 차량 병렬 호출 추가
+ * 26. 10. 18.        kjg08            개별 차량 응답 스트리밍 저장 추가
+ * 26. 10. 18.        kjg08            주기 종료 시 JSON 역직렬화 통계 출력
+ * 26. 10. 18.        kjg08            스트리밍 저장을 VehiclePassChunk 기반으로 변경
+ * 26. 10. 18.        kjg08            주기 종료 시 배치 삽입 chunk 통계 출력
+ * 26. 10. 18.        kjg08            정보가 바뀐 장소만 TL_MVMNEQ_CUR/LOG 저장
+ * 26. 10. 18.        kjg08            시작 시 저장된 조사 기간 인덱스/순번 로드
+ * 26. 10. 18.        kjg08            주기 종료 시 마지막 통과 시간 스냅샷 저장(로그 정리)
+ * 26. 10. 18.        kjg08            스트리밍 저장 시 밀린 장소는 여러 페이지를 이어서 조회(catch-up)
+ * 26. 10. 18.        kjg08            장소별 적응형 호출 스케줄러 선택 추가(scheduler.vehicles.adaptive.enabled)
+ * 26. 10. 18.        kjg08            조사 기간 밖의 장소는 개별 차량 호출을 건너뜀
+ * 26. 10. 18.        kjg08            같은 주기가 겹쳐 실행되지 않도록 CycleCoordinator 적용, 처리 건수 카운터를 AtomicInteger 로 변경
+ * 26. 10. 18.        kjg08            주기 종료 시 ATLYST HTTP 연결 풀 통계 출력
+ * 26. 10. 18.        kjg08            주기 종료 시 CircuitBreaker/Bulkhead 상태 출력
+ * 26. 10. 18.        kjg08            실패한 장소는 배치를 중단하지 않고 재시도 대기열(SiteRetryQueue)로 보내 주기 끝/다음 주기에 다시 호출
+ * 26. 10. 18.        kjg08            장소별 처리 시간, 워터마크 지연 지표 기록
  */
 @Component
 public class ScheduledTasksHandler {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasksHandler.class);
+    private static final String LIST_SITES_CYCLE = "ListSites";
+    private static final String INDIVIDUAL_VEHICLES_CYCLE = "IndividualVehicles";
 
     // 마지막 차량 통과 시간 파일 저장 매니저
     @Autowired
@@ -48,8 +82,36 @@ public class ScheduledTasksHandler {
 
     private long totalListSitesProcessTime = 0;
     private int totalListSitesProcessed = 0;
-    private long totalIndividualVehiclesProcessTime = 0;
-    private int totalIndividualVehiclesProcessed = 0;
+    private final AtomicLong totalIndividualVehiclesProcessTime = new AtomicLong(); // 병렬 호출 스레드에서 누적
+    private final AtomicInteger totalIndividualVehiclesProcessed = new AtomicInteger(); // 장소 작업 스레드에서도 누적
+
+    // 개별 차량 병렬 호출 사용 여부
+    @Value("${scheduler.vehicles.parallel.enabled:true}")
+    private boolean parallelFetchEnabled;
+
+    // 병렬 호출 시 저장 단계로 넘기기 전에 모아둘 최대 차량 수
+    @Value("${scheduler.vehicles.parallel.flush-size:10000}")
+    private int parallelFlushSize;
+
+    // 응답을 스트리밍으로 읽어 chunk 단위로 바로 저장할지 여부
+    @Value("${scheduler.vehicles.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    // 스트리밍 저장 시 한 번에 저장 단계로 넘기는 차량 수
+    @Value("${scheduler.vehicles.streaming.chunk-size:2000}")
+    private int streamingChunkSize;
+
+    // 조사 기간(survey_periods) 밖의 장소는 개별 차량 호출을 건너뛸지 여부
+    @Value("${scheduler.vehicles.survey-filter.enabled:true}")
+    private boolean surveyFilterEnabled;
+
+    // 조사 기간 앞뒤 여유 시간(ms), 상시 수집 장소는 종료 시간이 List Sites 주기마다 갱신되므로 그 주기보다 길게 설정
+    @Value("${scheduler.vehicles.survey-filter.grace-ms:86400000}")
+    private long surveyFilterGraceMs;
+
+    // 정보가 바뀌지 않은 장소는 TL_MVMNEQ_CUR/LOG 저장을 건너뛸지 여부
+    @Value("${scheduler.sites.change-detection.enabled:true}")
+    private boolean siteChangeDetectionEnabled;
 
     @Autowired
     private MCATLYSTApiService mcAtlystApiService;
@@ -59,6 +121,30 @@ public class ScheduledTasksHandler {
     private VehiclePassService vehiclePassService;
     @Autowired
     private SurveyPeriodService surveyPeriodService;
+    @Autowired
+    private SiteFetchExecutor siteFetchExecutor;
+    @Autowired
+    private AtlystJsonCodec atlystJsonCodec;
+    @Autowired
+    private BatchService batchService;
+    @Autowired
+    private SiteFingerprintCache siteFingerprintCache;
+    @Autowired
+    private CatchUpPager catchUpPager;
+    @Autowired
+    private AdaptivePollScheduler adaptivePollScheduler;
+    @Autowired
+    private SurveyWindowIndex surveyWindowIndex;
+    @Autowired
+    private CycleCoordinator cycleCoordinator;
+    @Autowired
+    private AtlystHttpClient atlystHttpClient;
+    @Autowired
+    private ResilienceMonitor resilienceMonitor;
+    @Autowired
+    private SiteRetryQueue siteRetryQueue;
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
 
     @Autowired
     @Qualifier("apiRetry")
@@ -70,6 +156,10 @@ public class ScheduledTasksHandler {
     @PostConstruct
     public void init() {
         lastVehiclePassTimeManager.loadLastVehiclePassTimes();
+        if (siteChangeDetectionEnabled) {
+            siteFingerprintCache.loadFromDB();
+        }
+        surveyPeriodService.loadKnownPeriods();
     }
 
 
@@ -78,6 +168,17 @@ public class ScheduledTasksHandler {
      */
     @Scheduled(cron = "${scheduler.cron.listSites}") // TL_RIS_ROADWIDTH api 호출
     public void fetchAndCacheListSite() {
+        try {
+            cycleCoordinator.runExclusively(LIST_SITES_CYCLE, this::runListSitesCycle);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // List Sites 한 주기
+    private void runListSitesCycle() {
         totalListSitesProcessTime = 0; // Resetting the counters
         totalListSitesProcessed = 0;
 
@@ -91,10 +192,16 @@ public class ScheduledTasksHandler {
                 logger.info("Total time spent calling the listSites API: {} ms, number of items called: {}", (fetchEndTime - fetchStartTime), listSites.size());
 
                 listSites.forEach(listSite -> mcAtlystApiService.cacheSite(listSite.getSite_id()));
+                surveyWindowIndex.refresh(listSites);
 
                 int processedItems = 0;
                 if (!listSites.isEmpty()) {
-                    processedItems += siteService.saveSiteLogs(listSites);
+                    // 이름, 설명, 좌표, 장비 아이디가 바뀐 장소만 TL_MVMNEQ_CUR/LOG 에 저장
+                    List<ListSiteDTO> changedSites = siteChangeDetectionEnabled ? siteFingerprintCache.changedSites(listSites) : listSites;
+                    logger.info("Site change detection: {} changed, {} unchanged sites skipped", changedSites.size(), listSites.size() - changedSites.size());
+                    if (!changedSites.isEmpty()) {
+                        processedItems += siteService.saveSiteLogs(changedSites);
+                    }
                     processedItems += surveyPeriodService.saveSurveyPeriods(listSites);
                 }
                 return processedItems;
@@ -110,6 +217,8 @@ public class ScheduledTasksHandler {
             long processTime = processEndTime - processStartTime;
             totalListSitesProcessTime = processTime;
             logger.info("listSites api --> Overall success to DB load, execution time: {} ms, number of items processed: {}", processTime, totalListSitesProcessed);
+            atlystJsonCodec.logStats();
+            resilienceMonitor.logStats();
             logger.info("--------------------------------------------------------------------------------------------");
         }
     }
@@ -119,8 +228,14 @@ public class ScheduledTasksHandler {
      */
     @Scheduled(cron = "${scheduler.cron.IndividualVehicles}")
     public void fetchIndividualVehicles() throws Throwable {
-        totalIndividualVehiclesProcessTime = 0; // Resetting the counters
-        totalIndividualVehiclesProcessed = 0;
+        // 이전 주기가 끝나지 않았으면 기다리지 않고 건너뜀
+        cycleCoordinator.runExclusively(INDIVIDUAL_VEHICLES_CYCLE, this::runIndividualVehiclesCycle);
+    }
+
+    // Individual Vehicles 한 주기
+    private void runIndividualVehiclesCycle() throws Throwable {
+        totalIndividualVehiclesProcessTime.set(0); // Resetting the counters
+        totalIndividualVehiclesProcessed.set(0);
 
         long processStartTime = System.currentTimeMillis();
         List<Integer> processedSiteIds = new ArrayList<>();
@@ -130,57 +245,219 @@ public class ScheduledTasksHandler {
             return;
         }
         Set<Integer> siteCache = mcAtlystApiService.getSiteCache();
-        int batchSize = Constants.DEFAULT_BATCH_SIZE; // 배치 크기 정의
-        List<Integer> siteList = new ArrayList<>(siteCache);
+        // 적응형 스케줄러를 사용하면 호출할 시간이 된 장소만 호출
+        List<Integer> siteList = adaptivePollScheduler.isEnabled()
+                ? adaptivePollScheduler.dueSites(siteCache, processStartTime)
+                : new ArrayList<>(siteCache);
+        if (surveyFilterEnabled) {
+            siteList = surveyWindowIndex.filterActive(siteList, processStartTime, surveyFilterGraceMs);
+        }
+        // 실패해서 재시도 대기 중인 장소는 일반 목록에서 빼고 아래 재시도 단계에서 대기 시간이 지났을 때만 호출
+        siteList = siteRetryQueue.withoutQueued(siteList, siteCache);
+
+        processSites(siteList, processedSiteIds);
 
+        // 대기 시간이 지난 실패 장소를 다시 호출(다시 실패하면 더 긴 대기 시간 뒤 다음 주기 이후에 재시도)
+        List<Integer> retrySites = siteRetryQueue.dueSites(System.currentTimeMillis());
+        if (!retrySites.isEmpty()) {
+            logger.info("Retrying {} previously failed sites", retrySites.size());
+            processSites(retrySites, processedSiteIds);
+        }
+
+        // 모든 작업이 완료된 후 마지막 차량 통과 시간을 스냅샷 파일에 저장(장소별 로그는 저장 시점에 이미 기록됨)
+        lastVehiclePassTimeManager.saveLastVehiclePassTimes();
+        pipelineMetrics.registerWatermarkLag(siteCache);
+        long processEndTime = System.currentTimeMillis();
+
+        logger.info("IndividualVehicles api --> Overall success to DB load, execution time: {} ms, number of items processed: {}", processEndTime - processStartTime, totalIndividualVehiclesProcessed.get());
+        logger.info("--------------------------------------------------------------------------------------------");
+        logger.info("--------------------------------------------------------------------------------------------");
+        logger.info("Processed site IDs: {}", processedSiteIds.stream().map(Object::toString).collect(Collectors.joining(", ")));
+        atlystJsonCodec.logStats();
+        atlystHttpClient.logStats();
+        resilienceMonitor.logStats();
+        siteRetryQueue.logStats(processEndTime);
+        batchService.logStats();
+        if (streamingEnabled) {
+            catchUpPager.logBacklog();
+        }
+        logger.info("--------------------------------------------------------------------------------------------");
+    }
+
+    /**
+     * 장소 목록을 배치 사이즈 별로 나눠서 호출하고 저장한다. 실패한 장소는 재시도 대기열로 보내고 나머지 장소는 계속 처리한다.
+     *
+     * @param siteList         호출할 장소 ID 목록
+     * @param processedSiteIds 처리 완료된 장소 ID 목록(결과 누적)
+     * @throws Throwable 저장 중 복구할 수 없는 오류 발생 시
+     */
+    private void processSites(List<Integer> siteList, List<Integer> processedSiteIds) throws Throwable {
+        int batchSize = Constants.DEFAULT_BATCH_SIZE; // 배치 크기 정의
         // Site ID 배치 사이즈 별로 모아서 처리
         for (int i = 0; i < siteList.size(); i += batchSize) {
             int end = Math.min(i + batchSize, siteList.size());
             List<Integer> batchList = siteList.subList(i, end);// 배치 개수만큼 리스트에 담음
 
+            if (streamingEnabled) {
+                streamBatch(batchList, processedSiteIds);
+                continue;
+            }
+            if (parallelFetchEnabled) {
+                fetchBatchInParallel(batchList, processedSiteIds);
+                continue;
+            }
+
             // 각 배치 리스트의 사이트 ID를 처리
             List<IndividualVehiclesDTO> allVehicles = new ArrayList<>();
             for (Integer siteId : batchList) {
-                List<IndividualVehiclesDTO> vehicles = Retry.decorateCheckedSupplier(retry, () -> fetchVehiclesForSite(siteId)).apply();
-                allVehicles.addAll(vehicles);
-                totalIndividualVehiclesProcessed += vehicles.size();
-                processedSiteIds.add(siteId);
+                try {
+                    List<IndividualVehiclesDTO> vehicles = timedSite("fetch", () -> fetchVehiclesForSite(siteId));
+                    allVehicles.addAll(vehicles);
+                    totalIndividualVehiclesProcessed.addAndGet(vehicles.size());
+                    onSiteSuccess(siteId, processedSiteIds);
+                } catch (Exception e) {
+                    onSiteFailure(String.format("Failed to fetch individual vehicles for siteId: %s", siteId), siteId, e);
+                }
             }
             logger.info("--------------------------------------------------------------------------------------------");
-            logger.info("Total time spent calling the IndividualVehicles api: {} ms", totalIndividualVehiclesProcessTime);
+            logger.info("Total time spent calling the IndividualVehicles api: {} ms", totalIndividualVehiclesProcessTime.get());
 
             // 배치로 차량 데이터를 저장
             if (!allVehicles.isEmpty()) {
                 vehiclePassService.saveVehiclePasses(allVehicles);
             }
         }
+    }
 
-        // 모든 작업이 완료된 후 마지막 차량 통과 시간을 파일에 저장
-        VehicleUtils.LastVehiclePassTimeManager.saveLastVehiclePassTimes();
-        long processEndTime = System.currentTimeMillis();
+    /**
+     * 배치 리스트의 장소들을 동시에 호출하고, 장소 하나가 끝날 때마다 결과를 모아 flush-size 단위로 저장한다.
+     * 저장은 이 메서드를 호출한 스케줄러 스레드에서만 수행된다.
+     *
+     * @param batchList        호출할 장소 ID 목록
+     * @param processedSiteIds 처리 완료된 장소 ID 목록(결과 누적)
+     */
+    private void fetchBatchInParallel(List<Integer> batchList, List<Integer> processedSiteIds) {
+        List<IndividualVehiclesDTO> pendingVehicles = new ArrayList<>();
+        long fetchStartTime = System.currentTimeMillis();
 
-        logger.info("IndividualVehicles api --> Overall success to DB load, execution time: {} ms, number of items processed: {}", processEndTime - processStartTime, totalIndividualVehiclesProcessed);
-        logger.info("--------------------------------------------------------------------------------------------");
+        siteFetchExecutor.fetchAll(batchList,
+                siteId -> timedSite("fetch", () -> fetchVehiclesForSite(siteId)),
+                new SiteFetchExecutor.SiteResultHandler<>() {
+                    @Override
+                    public void onSuccess(Integer siteId, List<IndividualVehiclesDTO> vehicles) {
+                        pendingVehicles.addAll(vehicles);
+                        totalIndividualVehiclesProcessed.addAndGet(vehicles.size());
+                        onSiteSuccess(siteId, processedSiteIds);
+                        if (pendingVehicles.size() >= parallelFlushSize) {
+                            vehiclePassService.saveVehiclePasses(new ArrayList<>(pendingVehicles));
+                            pendingVehicles.clear();
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Integer siteId, Throwable cause) {
+                        onSiteFailure(String.format("Failed to fetch individual vehicles for siteId: %s", siteId), siteId, cause);
+                    }
+                });
+
+        if (!pendingVehicles.isEmpty()) {
+            vehiclePassService.saveVehiclePasses(pendingVehicles);
+        }
         logger.info("--------------------------------------------------------------------------------------------");
-        logger.info("Processed site IDs: {}", processedSiteIds.stream().map(Object::toString).collect(Collectors.joining(", ")));
+        logger.info("IndividualVehicles parallel fetch finished, wall time: {} ms, summed api time: {} ms, sites: {}",
+                System.currentTimeMillis() - fetchStartTime, totalIndividualVehiclesProcessTime.get(), batchList.size());
+    }
+
+
+    /**
+     * 배치 리스트의 장소별 응답을 스트리밍으로 읽어서 chunk 단위로 바로 저장한다.
+     * 병렬 모드에서는 장소 작업 스레드에서 호출, 파싱, 저장이 모두 이루어지고 스케줄러 스레드는 결과 건수만 모은다.
+     *
+     * @param batchList        호출할 장소 ID 목록
+     * @param processedSiteIds 처리 완료된 장소 ID 목록(결과 누적)
+     * @throws Throwable 순차 모드에서 복구할 수 없는 오류 발생 시
+     */
+    private void streamBatch(List<Integer> batchList, List<Integer> processedSiteIds) throws Throwable {
+        long fetchStartTime = System.currentTimeMillis();
+        if (!parallelFetchEnabled) {
+            for (Integer siteId : batchList) {
+                try {
+                    totalIndividualVehiclesProcessed.addAndGet(timedSite("stream", () -> streamVehiclesForSite(siteId)));
+                    onSiteSuccess(siteId, processedSiteIds);
+                } catch (Exception e) {
+                    onSiteFailure(String.format("Failed to stream individual vehicles for siteId: %s", siteId), siteId, e);
+                }
+            }
+        } else {
+            siteFetchExecutor.fetchAll(batchList,
+                    siteId -> timedSite("stream", () -> streamVehiclesForSite(siteId)),
+                    new SiteFetchExecutor.SiteResultHandler<Integer>() {
+                        @Override
+                        public void onSuccess(Integer siteId, Integer vehicleCount) {
+                            totalIndividualVehiclesProcessed.addAndGet(vehicleCount);
+                            onSiteSuccess(siteId, processedSiteIds);
+                        }
+
+                        @Override
+                        public void onFailure(Integer siteId, Throwable cause) {
+                            onSiteFailure(String.format("Failed to stream individual vehicles for siteId: %s", siteId), siteId, cause);
+                        }
+                    });
+        }
         logger.info("--------------------------------------------------------------------------------------------");
+        logger.info("IndividualVehicles streaming finished, wall time: {} ms, summed api time: {} ms, sites: {}",
+                System.currentTimeMillis() - fetchStartTime, totalIndividualVehiclesProcessTime.get(), batchList.size());
     }
 
+    // 한 장소의 차량 데이터를 스트리밍으로 읽어서 chunk 단위로 저장하는 메서드, 밀린 차량이 있으면 페이지를 이어서 조회
+    private int streamVehiclesForSite(Integer siteId) throws Exception {
+        long fetchStartTime = System.currentTimeMillis();
+        int vehicleCount = catchUpPager.catchUp(siteId, streamingChunkSize, vehiclePassService::saveVehiclePassChunk);
+        totalIndividualVehiclesProcessTime.addAndGet(System.currentTimeMillis() - fetchStartTime);
+        if (adaptivePollScheduler.isEnabled()) {
+            CatchUpPager.SiteBacklog backlog = catchUpPager.getBacklogs().get(siteId);
+            adaptivePollScheduler.record(siteId, vehicleCount, backlog != null && !backlog.caughtUp(), System.currentTimeMillis());
+        }
+        return vehicleCount;
+    }
 
-    // 각 사이트에 대해 차량 데이터를 가져오는 메서드
-    private List<IndividualVehiclesDTO> fetchVehiclesForSite(Integer siteId) {
-        List<IndividualVehiclesDTO> vehicles = new ArrayList<>();
+    // 장소 하나를 재시도(apiRetry)와 함께 처리하고 재시도를 포함한 소요 시간을 지표로 기록
+    private <T> T timedSite(String mode, CheckedFunction0<T> work) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
-            long fetchStartTime = System.currentTimeMillis();
-            vehicles = mcAtlystApiService.individualVehicles(siteId);
-            long fetchEndTime = System.currentTimeMillis();
-            totalIndividualVehiclesProcessTime += (fetchEndTime - fetchStartTime);
-        } catch (UnirestException e) {
-            handleApiException(String.format("Failed to fetch individual vehicles for siteId: %s", siteId), e);
+            T result = Retry.decorateCheckedSupplier(retry, work).apply();
+            success = true;
+            return result;
+        } finally {
+            pipelineMetrics.recordSiteFetch(mode, success, System.nanoTime() - start);
+        }
+    }
+
+    // 각 사이트에 대해 차량 데이터를 가져오는 메서드, 요청 실패는 재시도(apiRetry)와 재시도 대기열에서 처리하도록 그대로 던짐
+    private List<IndividualVehiclesDTO> fetchVehiclesForSite(Integer siteId) throws UnirestException {
+        long fetchStartTime = System.currentTimeMillis();
+        List<IndividualVehiclesDTO> vehicles = mcAtlystApiService.individualVehicles(siteId);
+        long fetchEndTime = System.currentTimeMillis();
+        totalIndividualVehiclesProcessTime.addAndGet(fetchEndTime - fetchStartTime);
+        if (adaptivePollScheduler.isEnabled()) {
+            adaptivePollScheduler.record(siteId, vehicles.size(), vehicles.size() >= mcAtlystApiService.getIndividualVehiclesLimit(), fetchEndTime);
         }
         return vehicles;
     }
 
+    // 장소 처리 성공: 처리 목록에 추가하고 재시도 대기열에 있었다면 제거
+    private void onSiteSuccess(Integer siteId, List<Integer> processedSiteIds) {
+        processedSiteIds.add(siteId);
+        siteRetryQueue.recordSuccess(siteId, System.currentTimeMillis());
+    }
+
+    // 장소 처리 실패: 로그를 남기고 재시도 대기열로 보냄
+    private void onSiteFailure(String message, Integer siteId, Throwable cause) {
+        handleApiException(message, cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+        siteRetryQueue.recordFailure(siteId, cause, System.currentTimeMillis());
+    }
+
 
     /**
      * API 호출 중 발생한 예외를 처리하는 메서드.
@@ -1,24 +1,35 @@
 package org.neighbor21.slkaMobileEquipApi.service;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retry.Retry;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import org.neighbor21.slkaMobileEquipApi.config.Constants;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_CUREntity;
+import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_LOGEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_PASSEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_PERIODEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_PASS_IdEntity;
+import org.neighbor21.slkaMobileEquipApi.service.loader.ChunkLatencyStats;
+import org.neighbor21.slkaMobileEquipApi.service.loader.MultiRowInsertSql;
+import org.neighbor21.slkaMobileEquipApi.service.loader.PassCopyLoader;
+import org.neighbor21.slkaMobileEquipApi.service.loader.WatermarkTableStore;
+import org.neighbor21.slkaMobileEquipApi.service.util.ConcurrencyLimiter;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.sql.*;
+import java.util.HashMap;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * packageName    : org.neighbor21.slkaMobileEquipApi.service
@@ -30,97 +41,93 @@ import java.util.function.Consumer;
  * DATE              AUTHOR             NOTE
  * -----------------------------------------------------------
  * 24. 5. 21.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           JDBC 배치 커넥션 사용 수를 세마포어로 제한
+ * 26. 10. 18.        kjg08           VehiclePassChunk 배치 삽입 추가
+ * 26. 10. 18.        kjg08           tl_mvmneq_pass COPY 적재 선택 추가(batch.pass.loader)
+ * 26. 10. 18.        kjg08           여러 행 INSERT ... VALUES 문으로 배치 삽입
+ * 26. 10. 18.        kjg08           tl_mvmneq_pass 를 chunk 단위로 커밋하고 재시도 시 실패한 chunk 부터 이어서 삽입
+ * 26. 10. 18.        kjg08           TL_MVMNEQ_CUR JDBC upsert, TL_MVMNEQ_LOG JDBC 배치 삽입 추가
+ * 26. 10. 18.        kjg08           insertPeriodeBatch 가 삽입된 행 수를 반환
+ * 26. 10. 18.        kjg08           tl_mvmneq_pass 커밋 단위마다 같은 트랜잭션에서 tl_mvmneq_watermark upsert
+ * 26. 10. 18.        kjg08           JDBC 배치 작업에 DB CircuitBreaker/Bulkhead 적용
+ * 26. 10. 18.        kjg08           삽입 경로별 소요 시간, 삽입/중복/실패 행 수 지표 기록
+ * 26. 10. 18.        kjg08           호출하는 곳이 없는 JPA 배치 삽입(batchInsertWithRetry, handleBatchException) 삭제
  */
 @Service
 @Transactional
 public class BatchService {
     private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
-    private final TransactionTemplate transactionTemplate;
+    private static final MultiRowInsertSql PASS_INSERT = new MultiRowInsertSql(
+            "INSERT INTO srlk.tl_mvmneq_pass (pass_dt, vhcl_drct, pass_lane, instllc_id, vhcl_speed, vhcl_len, vhcl_intv_ss, vhcl_clsf, clct_dt)", 9,
+            "ON CONFLICT (pass_dt, vhcl_drct, pass_lane, instllc_id) DO NOTHING");
+    private static final MultiRowInsertSql CUR_UPSERT = new MultiRowInsertSql(
+            "INSERT INTO srlk.tl_mvmneq_cur (instllc_id, instllc_nm, instllc_descr, eqpmnt_id, lat, lon, clct_dt)", 7,
+            "ON CONFLICT (instllc_id) DO UPDATE SET instllc_nm = EXCLUDED.instllc_nm, instllc_descr = EXCLUDED.instllc_descr, " +
+                    "eqpmnt_id = EXCLUDED.eqpmnt_id, lat = EXCLUDED.lat, lon = EXCLUDED.lon, clct_dt = EXCLUDED.clct_dt");
+    private static final MultiRowInsertSql LOG_INSERT = new MultiRowInsertSql(
+            "INSERT INTO srlk.tl_mvmneq_log (clct_dt, instllc_id, instllc_nm, instllc_descr, eqpmnt_id, lat, lon)", 7,
+            "ON CONFLICT (clct_dt, instllc_id) DO NOTHING");
+    private static final MultiRowInsertSql PERIOD_INSERT = new MultiRowInsertSql(
+            "INSERT INTO srlk.tl_mvmneq_period (clct_dt, sqno, instllc_id, start_dt, end_dt)", 5,
+            "ON CONFLICT (clct_dt, instllc_id, sqno) DO NOTHING");
+    // 삽입된 행 수를 알 수 없음
+    public static final int UNKNOWN_ROWS = -1;
+    private static final String PASS_TABLE = "tl_mvmneq_pass";
+    private static final String CUR_TABLE = "tl_mvmneq_cur";
+    private static final String LOG_TABLE = "tl_mvmneq_log";
+    private static final String PERIOD_TABLE = "tl_mvmneq_period";
+    private static final String JDBC_LOADER = "jdbc";
+    private static final String COPY_LOADER = "copy";
 
     @Autowired
     private DataSource dataSource;
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
     @Autowired
     private Retry dbRetry;
 
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
 
-    /**
-     * BatchService 생성자.
-     *
-     * @param transactionManager 트랜잭션 매니저
-     */
     @Autowired
-    public BatchService(PlatformTransactionManager transactionManager) {
-        this.transactionTemplate = new TransactionTemplate(transactionManager);
-    }
+    @Qualifier("dbCircuitBreaker")
+    private CircuitBreaker dbCircuitBreaker;
 
+    @Autowired
+    @Qualifier("dbBulkhead")
+    private Bulkhead dbBulkhead;
 
-    /**
-     * 엔티티 리스트를 배치로 삽입하는 메소드. jpa 사용
-     * 각 엔티티를 지속하고, 주기적으로 EntityManager를 플러시 및 클리어하여 메모리 사용을 최적화한다.
-     *
-     * @param entities        삽입할 엔티티 리스트
-     * @param persistFunction 엔티티 삽입 함수
-     * @param <T>             엔티티 타입
-     */
-    public <T> void batchInsertWithRetry(List<T> entities, Consumer<T> persistFunction) {
-        int batchSize = Constants.DEFAULT_BATCH_SIZE; // 배치 크기 설정
-        int totalRecords = entities.size();
-        final int[] lastLoggedProgress = {0}; // 배치 시작 시 진행률 초기화
-
-        transactionTemplate.executeWithoutResult(status -> {
-            // entities 리스트를 batchSize 크기만큼씩 나누어 처리하는 루프
-            for (int i = 0; i < totalRecords; i += batchSize) {
-                // 현재 배치의 끝 인덱스를 계산
-                int end = Math.min(i + batchSize, totalRecords);
-                // 현재 배치 리스트를 추출
-                List<T> batchList = entities.subList(i, end);
-
-                if (!batchList.isEmpty()) {
-                    try {
-                        Retry.decorateRunnable(dbRetry, () -> {
-                            for (T entity : batchList) {
-                                try {
-                                    persistFunction.accept(entity); // 엔티티 삽입 함수 호출
-                                } catch (Exception e) {
-                                    logger.error("Error persisting entity {}: {}", entity, e.getMessage(), e);
-                                    throw e; // 외부 catch에서 처리하도록 다시 던짐
-                                }
-                            }
-                            entityManager.flush(); // 변경 사항을 데이터베이스에 반영
-                            entityManager.clear(); // 영속성 컨텍스트를 비움
-                        }).run();
-                    } catch (Exception e) {
-                        logger.error("Batch insert attempt failed at index {} to {}: {}", i, end, e.getMessage(), e);
-                        handleBatchException(batchList, persistFunction);
-                    }
-                }
-            }
-        });
-    }
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
 
-    /**
-     * 배치 삽입 중 예외가 발생했을 때 예외를 처리하는 메소드.
-     *
-     * @param batchList       현재 배치 리스트
-     * @param persistFunction 엔티티 삽입 함수
-     * @param <T>             엔티티 타입
-     */
-    private <T> void handleBatchException(List<T> batchList, Consumer<T> persistFunction) {
-        for (T entity : batchList) {
-            try {
-                persistFunction.accept(entity);
-                entityManager.flush();
-            } catch (Exception e) {
-                logger.error("Failed to insert entity {}: {}", entity, e.getMessage());
-            } finally {
-                entityManager.clear(); // 영속성 컨텍스트를 비움
-            }
-        }
-    }
+    @Autowired
+    private PassCopyLoader passCopyLoader;
+
+    @Autowired
+    private WatermarkTableStore watermarkTableStore;
+
+    // tl_mvmneq_pass 적재 방식: jdbc(INSERT 배치) | copy(COPY + 임시 테이블 병합)
+    @Value("${batch.pass.loader:jdbc}")
+    private String passLoader;
+
+    // INSERT 문 하나에 넣을 행 수(1 이면 한 행씩 addBatch). 바인드 파라미터 32767 개를 넘지 않도록 보정된다.
+    @Value("${batch.multi-row.pass-rows:1000}")
+    private int passRowsPerStatement;
+
+    @Value("${batch.multi-row.period-rows:1000}")
+    private int periodRowsPerStatement;
+
+    @Value("${batch.multi-row.site-rows:1000}")
+    private int siteRowsPerStatement;
+
+    // tl_mvmneq_pass 를 한 행씩 배치로 실행할 때 executeBatch 한 번에 보내는 행 수
+    @Value("${batch.pass.rows-per-execute:1000}")
+    private int passRowsPerExecute;
+
+    // tl_mvmneq_pass 커밋 단위 행 수. 실패하면 이 단위로 롤백되고 재시도는 실패한 단위부터 이어간다.
+    @Value("${batch.pass.rows-per-commit:10000}")
+    private int passRowsPerCommit;
+
+    private final ChunkLatencyStats passChunkStats = new ChunkLatencyStats("tl_mvmneq_pass");
 
 
     /**
@@ -140,44 +147,170 @@ public class BatchService {
     }
 
 
+    /**
+     * DB 동시 사용 권한을 얻는다. 여러 장소 작업이 동시에 저장해도 Hikari 최대 커넥션 수를 넘지 않도록 한다.
+     * DB Bulkhead 자리를 정해진 시간 안에 얻지 못하거나(BulkheadFullException) DB CircuitBreaker 가 열려 있으면(CallNotPermittedException)
+     * 커넥션을 기다리지 않고 바로 실패한다.
+     *
+     * @return 작업 시작 시각(System.nanoTime), releaseDbPermit 에 넘긴다
+     * @throws SQLException 대기 중 인터럽트 발생 시
+     */
+    private long acquireDbPermit() throws SQLException {
+        dbBulkhead.acquirePermission();
+        try {
+            dbCircuitBreaker.acquirePermission();
+        } catch (RuntimeException e) {
+            dbBulkhead.onComplete();
+            throw e;
+        }
+        long start = System.nanoTime();
+        try {
+            concurrencyLimiter.acquireDbPermit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dbCircuitBreaker.releasePermission();
+            dbBulkhead.onComplete();
+            throw new SQLException("Interrupted while waiting for a DB permit", e);
+        }
+        return start;
+    }
+
+    /**
+     * DB 동시 사용 권한을 반납하고 작업 결과를 DB CircuitBreaker 와 삽입 경로별 소요 시간 지표에 기록한다.
+     *
+     * @param start  acquireDbPermit 이 돌려준 시작 시각
+     * @param error  작업 중 발생한 예외, 성공이면 null
+     * @param path   삽입 경로(지표 태그)
+     * @param loader 적재 방식(지표 태그)
+     */
+    private void releaseDbPermit(long start, Throwable error, String path, String loader) {
+        long duration = System.nanoTime() - start;
+        pipelineMetrics.recordBatchInsert(path, loader, error == null, duration);
+        try {
+            if (error == null) {
+                dbCircuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            } else {
+                dbCircuitBreaker.onError(duration, TimeUnit.NANOSECONDS, error);
+            }
+        } finally {
+            concurrencyLimiter.releaseDbPermit();
+            dbBulkhead.onComplete();
+        }
+    }
+
+
     /**
      * JDBC를 사용하여 배치로 TL_MVMNEQ_PERIOD 데이터를 삽입하는 메소드.
      *
      * @param periodEntities 삽입할 엔티티 리스트
+     * @return 실제로 삽입된 행 수(ON CONFLICT 로 건너뛴 행 제외), 드라이버가 알려주지 않으면 UNKNOWN_ROWS
      * @throws SQLException SQL 예외 발생 시
      */
-    public void insertPeriodeBatch(List<TL_MVMNEQ_PERIODEntity> periodEntities) throws SQLException {
-        String sql = "INSERT INTO srlk.tl_mvmneq_period (clct_dt, sqno, instllc_id, start_dt, end_dt) VALUES (?, ?, ?, ?, ?) " +
-                "ON CONFLICT (clct_dt, instllc_id, sqno) DO NOTHING";
-
+    public int insertPeriodeBatch(List<TL_MVMNEQ_PERIODEntity> periodEntities) throws SQLException {
+        long start = acquireDbPermit();
+        Throwable error = null;
         // 데이터베이스에 연결을 설정합니다.
         try (Connection connection = Retry.decorateCheckedSupplier(dbRetry, dataSource::getConnection).apply()) {
             connection.setAutoCommit(false); // 자동 커밋 비활성화
 
-            // 배치 실행을 위한 SQL 문을 준비합니다.
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                for (TL_MVMNEQ_PERIODEntity entity : periodEntities) {
+            try {
+                int inserted = executeInsert(connection, PERIOD_INSERT, periodRowsPerStatement, periodEntities.size(), 0, periodEntities.size(), (statement, offset, row) -> {
                     // 엔티티에서 PreparedStatement의 매개변수를 설정합니다.
-                    statement.setTimestamp(1, entity.getId().getCollectionDatetime());
-                    statement.setInt(2, entity.getId().getSequenceNo());
-                    statement.setString(3, entity.getId().getInstllcId());
-                    statement.setTimestamp(4, Timestamp.valueOf(entity.getStartTime()));
-                    statement.setTimestamp(5, Timestamp.valueOf(entity.getEndTime()));
-                    statement.addBatch(); // 배치에 문을 추가합니다.
-                }
-                // 배치 실행
-                statement.executeBatch();
+                    TL_MVMNEQ_PERIODEntity entity = periodEntities.get(row);
+                    statement.setTimestamp(offset + 1, entity.getId().getCollectionDatetime());
+                    statement.setInt(offset + 2, entity.getId().getSequenceNo());
+                    statement.setString(offset + 3, entity.getId().getInstllcId());
+                    statement.setTimestamp(offset + 4, Timestamp.valueOf(entity.getStartTime()));
+                    statement.setTimestamp(offset + 5, Timestamp.valueOf(entity.getEndTime()));
+                });
                 connection.commit(); // 트랜잭션 커밋
+                pipelineMetrics.recordRows(PERIOD_TABLE, periodEntities.size(), inserted);
+                return inserted;
             } catch (SQLException e) {
                 connection.rollback(); // 오류가 발생하면 트랜잭션 롤백
-                logBatchUpdateException((BatchUpdateException) e); // 예외 로깅
+                pipelineMetrics.recordFailedRows(PERIOD_TABLE, periodEntities.size());
+                if (e instanceof BatchUpdateException bue) {
+                    logBatchUpdateException(bue); // 예외 로깅
+                }
                 throw e;
             }
         } catch (SQLException e) {
+            error = e;
             logger.error("Failed to execute period batch insert", e);
             throw e; // 예외를 다시 던져서 호출자에게 알림
         } catch (Throwable e) {
+            error = e;
             throw new RuntimeException(e);
+        } finally {
+            releaseDbPermit(start, error, "period", JDBC_LOADER);
+        }
+    }
+
+    /**
+     * JDBC를 사용하여 TL_MVMNEQ_CUR 를 배치로 upsert 하는 메소드. 장소별 현재 상태이므로 instllc_id 가 이미 있으면 갱신한다.
+     * 한 문장 안에 같은 instllc_id 가 두 번 있으면 PostgreSQL 이 오류를 내므로 호출하는 쪽에서 장소 ID 중복을 제거해야 한다.
+     *
+     * @param curEntities upsert 할 엔티티 리스트(instllc_id 중복 없음)
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void upsertCurBatch(List<TL_MVMNEQ_CUREntity> curEntities) throws SQLException {
+        withBatchConnection("cur", JDBC_LOADER, "cur batch", connection -> executeAndCommit(connection, CUR_TABLE, CUR_UPSERT, curEntities.size(), (statement, offset, row) -> {
+            TL_MVMNEQ_CUREntity entity = curEntities.get(row);
+            statement.setString(offset + 1, entity.getInstllcId().getInstllcId());
+            statement.setString(offset + 2, entity.getInstllcNm());
+            statement.setString(offset + 3, entity.getInstllcDescr());
+            statement.setString(offset + 4, entity.getEqpmntId());
+            statement.setBigDecimal(offset + 5, entity.getLatitude());
+            statement.setBigDecimal(offset + 6, entity.getLongitude());
+            statement.setTimestamp(offset + 7, entity.getCollectionDatetime());
+        }));
+    }
+
+    /**
+     * JDBC를 사용하여 TL_MVMNEQ_LOG 를 배치로 삽입하는 메소드. 같은 수집 일시/장소의 이력이 이미 있으면 건너뛴다.
+     *
+     * @param logEntities 삽입할 엔티티 리스트
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void insertLogBatch(List<TL_MVMNEQ_LOGEntity> logEntities) throws SQLException {
+        withBatchConnection("log", JDBC_LOADER, "log batch", connection -> executeAndCommit(connection, LOG_TABLE, LOG_INSERT, logEntities.size(), (statement, offset, row) -> {
+            TL_MVMNEQ_LOGEntity entity = logEntities.get(row);
+            statement.setTimestamp(offset + 1, entity.getId().getCollectionDatetime());
+            statement.setString(offset + 2, entity.getId().getInstllcId());
+            statement.setString(offset + 3, entity.getInstllcNm());
+            statement.setString(offset + 4, entity.getInstllcDescr());
+            statement.setString(offset + 5, entity.getEqpmntId());
+            statement.setBigDecimal(offset + 6, entity.getLatitude());
+            statement.setBigDecimal(offset + 7, entity.getLongitude());
+        }));
+    }
+
+    /**
+     * 장소 테이블 행을 여러 행 INSERT 문으로 실행하고 한 번에 커밋한다. 실패하면 롤백한다.
+     */
+    private void executeAndCommit(Connection connection, String table, MultiRowInsertSql insert, int rowCount, RowBinder binder) throws SQLException {
+        try {
+            int inserted = executeInsert(connection, insert, siteRowsPerStatement, rowCount, 0, rowCount, binder);
+            connection.commit();
+            pipelineMetrics.recordRows(table, rowCount, inserted);
+        } catch (SQLException e) {
+            connection.rollback();
+            pipelineMetrics.recordFailedRows(table, rowCount);
+            if (e instanceof BatchUpdateException bue) {
+                logBatchUpdateException(bue);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 삽입 진행 위치(커밋된 행 수). 재시도할 때 같은 객체를 넘기면 이미 커밋된 chunk 는 건너뛰고 실패한 chunk 부터 다시 삽입한다.
+     */
+    public static class Checkpoint {
+        private volatile int committedRows = 0;
+
+        public int getCommittedRows() {
+            return committedRows;
         }
     }
 
@@ -188,38 +321,356 @@ public class BatchService {
      * @throws SQLException SQL 예외 발생 시
      */
     public void insertPassBatch(List<TL_MVMNEQ_PASSEntity> passEntities) throws SQLException {
-        String sql = "INSERT INTO srlk.tl_mvmneq_pass (pass_dt, vhcl_drct, pass_lane, instllc_id, vhcl_speed, vhcl_len, vhcl_intv_ss, vhcl_clsf, clct_dt) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (pass_dt, vhcl_drct, pass_lane, instllc_id) DO NOTHING";
+        insertPassBatch(passEntities, new Checkpoint());
+    }
+
+    /**
+     * JDBC를 사용하여 배치로 데이터를 삽입하는 메소드. checkpoint 이후의 행부터 rows-per-commit 개씩 커밋한다.
+     *
+     * @param passEntities 삽입할 엔티티 리스트
+     * @param checkpoint   진행 위치(재시도 시 같은 객체 사용)
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void insertPassBatch(List<TL_MVMNEQ_PASSEntity> passEntities, Checkpoint checkpoint) throws SQLException {
+        if (isCopyLoader()) {
+            withBatchConnection("pass_batch", COPY_LOADER, "pass batch", connection -> loadByCopy(connection, passEntities.size(),
+                    () -> passCopyLoader.load(connection, passEntities), lastPassTimes(passEntities, 0, passEntities.size())));
+            return;
+        }
+        RangeWatermark watermark = (from, to) -> lastPassTimes(passEntities, from, to);
+        withBatchConnection("pass_batch", JDBC_LOADER, "pass batch", connection -> commitInChunks(connection, passEntities.size(), checkpoint, watermark, (statement, offset, row) -> {
+            TL_MVMNEQ_PASSEntity entity = passEntities.get(row);
+            TL_MVMNEQ_PASS_IdEntity id = entity.getId();
+            statement.setTimestamp(offset + 1, id.getPassTime());
+            statement.setString(offset + 2, id.getVehicleDirection());
+            statement.setInt(offset + 3, id.getPassLane());
+            statement.setString(offset + 4, id.getInstllcId());
+            statement.setBigDecimal(offset + 5, entity.getVehicleSpeed());
+            statement.setBigDecimal(offset + 6, entity.getVehicleLength());
+            statement.setInt(offset + 7, entity.getVehicleIntervalSeconds());
+            statement.setString(offset + 8, entity.getVehicleClass());
+            statement.setTimestamp(offset + 9, entity.getCollectionDatetime());
+        }));
+    }
+
+    /**
+     * JDBC를 사용하여 VehiclePassChunk 를 배치로 삽입하는 메소드.
+     *
+     * @param chunk 삽입할 차량 묶음
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void insertPassChunk(VehiclePassChunk chunk) throws SQLException {
+        insertPassChunk(chunk, new Checkpoint());
+    }
+
+    /**
+     * JDBC를 사용하여 VehiclePassChunk 를 배치로 삽입하는 메소드.
+     * 기본형 배열에서 PreparedStatement 로 바로 바인딩한다. pgjdbc 는 setTimestamp 시점에 값을 문자열로 변환하므로
+     * 통과 시간용 Timestamp 하나를 setTime 으로 재사용하고, 수집 일시는 묶음마다 한 번만 만든다.
+     *
+     * @param chunk      삽입할 차량 묶음
+     * @param checkpoint 진행 위치(재시도 시 같은 객체 사용)
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void insertPassChunk(VehiclePassChunk chunk, Checkpoint checkpoint) throws SQLException {
+        String label = "pass chunk for siteId " + chunk.getSiteId();
+        if (isCopyLoader()) {
+            withBatchConnection("pass_chunk", COPY_LOADER, label, connection -> loadByCopy(connection, chunk.size(),
+                    () -> passCopyLoader.load(connection, chunk), lastPassTimes(chunk, 0, chunk.size())));
+            return;
+        }
+        String instllcId = chunk.getInstllcId();
+        RangeWatermark watermark = (from, to) -> lastPassTimes(chunk, from, to);
+        Timestamp passTime = new Timestamp(0L);
+        Timestamp collectionDatetime = new Timestamp(System.currentTimeMillis());
+        withBatchConnection("pass_chunk", JDBC_LOADER, label, connection -> commitInChunks(connection, chunk.size(), checkpoint, watermark, (statement, offset, row) -> {
+            passTime.setTime(chunk.getPassTime(row));
+            statement.setTimestamp(offset + 1, passTime);
+            statement.setString(offset + 2, chunk.getHeading(row));
+            statement.setInt(offset + 3, chunk.getLaneIndex(row));
+            statement.setString(offset + 4, instllcId);
+            setScaled(statement, offset + 5, chunk.getSpeedScaled(row));
+            setScaled(statement, offset + 6, chunk.getLengthScaled(row));
+            statement.setInt(offset + 7, chunk.getIntervalSeconds(row));
+            statement.setString(offset + 8, chunk.getVehicleClass(row));
+            statement.setTimestamp(offset + 9, collectionDatetime);
+        }));
+    }
+
+    /**
+     * 커넥션을 사용하는 작업
+     */
+    @FunctionalInterface
+    private interface ConnectionWork {
+        void run(Connection connection) throws SQLException;
+    }
 
+    /**
+     * DB 사용 권한과 커넥션을 얻어서 배치 삽입 작업을 실행한다.
+     *
+     * @param path   삽입 경로(지표 태그)
+     * @param loader 적재 방식(지표 태그)
+     * @param label  로그용 작업 이름
+     * @param work   커넥션 작업
+     * @throws SQLException SQL 예외 발생 시
+     */
+    private void withBatchConnection(String path, String loader, String label, ConnectionWork work) throws SQLException {
+        long start = acquireDbPermit();
+        Throwable error = null;
         try (Connection connection = Retry.decorateCheckedSupplier(dbRetry, dataSource::getConnection).apply()) {
             connection.setAutoCommit(false);
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                for (TL_MVMNEQ_PASSEntity entity : passEntities) {
-                    TL_MVMNEQ_PASS_IdEntity id = entity.getId();
-                    statement.setTimestamp(1, id.getPassTime());
-                    statement.setString(2, id.getVehicleDirection());
-                    statement.setInt(3, id.getPassLane());
-                    statement.setString(4, id.getInstllcId());
-                    statement.setBigDecimal(5, entity.getVehicleSpeed());
-                    statement.setBigDecimal(6, entity.getVehicleLength());
-                    statement.setInt(7, entity.getVehicleIntervalSeconds());
-                    statement.setString(8, entity.getVehicleClass());
-                    statement.setTimestamp(9, entity.getCollectionDatetime());
-                    statement.addBatch();
+            work.run(connection);
+        } catch (SQLException e) {
+            error = e;
+            logger.error("Failed to execute {} insert", label, e);
+            throw e;
+        } catch (Throwable e) {
+            error = e;
+            throw new RuntimeException(e);
+        } finally {
+            releaseDbPermit(start, error, path, loader);
+        }
+    }
+
+    /**
+     * 삽입 범위의 설치위치별 마지막 통과 시간을 구하는 함수
+     */
+    @FunctionalInterface
+    private interface RangeWatermark {
+        Map<String, Long> lastPassTimes(int fromRow, int toRow);
+    }
+
+    /**
+     * checkpoint 이후의 행을 rows-per-commit 개씩 나눠서 삽입하고 chunk 마다 커밋한다.
+     * tl_mvmneq_watermark 를 사용하면 커밋 전에 같은 커넥션에서 chunk 의 마지막 통과 시간을 upsert 한다.
+     * chunk 가 실패하면 그 chunk 만 롤백되고 checkpoint 는 마지막으로 커밋된 위치에 남는다.
+     *
+     * @param connection 자동 커밋이 꺼진 커넥션
+     * @param rowCount   전체 행 수
+     * @param checkpoint 진행 위치
+     * @param watermark  범위의 마지막 통과 시간 계산 함수
+     * @param binder     행 파라미터 설정 함수
+     * @throws SQLException SQL 예외 발생 시
+     */
+    private void commitInChunks(Connection connection, int rowCount, Checkpoint checkpoint, RangeWatermark watermark, RowBinder binder) throws SQLException {
+        int rowsPerCommit = Math.max(1, passRowsPerCommit);
+        if (checkpoint.committedRows > 0) {
+            logger.info("Resuming TL_MVMNEQ_PASS insert at row {} of {}", checkpoint.committedRows, rowCount);
+        }
+        while (checkpoint.committedRows < rowCount) {
+            int from = checkpoint.committedRows;
+            int to = Math.min(rowCount, from + rowsPerCommit);
+            long start = System.nanoTime();
+            int inserted;
+            try {
+                inserted = executeInsert(connection, PASS_INSERT, passRowsPerStatement, passRowsPerExecute, from, to, binder);
+                if (watermarkTableStore.isEnabled()) {
+                    watermarkTableStore.upsert(connection, watermark.lastPassTimes(from, to));
                 }
-                statement.executeBatch();
                 connection.commit();
             } catch (SQLException e) {
                 connection.rollback();
-                logBatchUpdateException((BatchUpdateException) e);
+                pipelineMetrics.recordFailedRows(PASS_TABLE, to - from);
+                if (e instanceof BatchUpdateException bue) {
+                    logBatchUpdateException(bue);
+                }
+                logger.warn("TL_MVMNEQ_PASS chunk rows {}-{} of {} failed, {} rows already committed", from, to, rowCount, from);
                 throw e;
             }
+            long elapsed = System.nanoTime() - start;
+            checkpoint.committedRows = to;
+            passChunkStats.record(to - from, elapsed);
+            pipelineMetrics.recordRows(PASS_TABLE, to - from, inserted);
+            logger.debug("TL_MVMNEQ_PASS chunk rows {}-{} of {} committed in {} ms", from, to, rowCount, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * tl_mvmneq_pass 커밋 단위별 처리 시간 통계
+     *
+     * @return 통계 객체
+     */
+    public ChunkLatencyStats getPassChunkStats() {
+        return passChunkStats;
+    }
+
+    /**
+     * 누적된 배치 삽입 통계를 로그로 출력한다.
+     */
+    public void logStats() {
+        logger.info("Batch insert stats - {}", passChunkStats);
+    }
+
+    /**
+     * 한 행의 파라미터를 설정하는 함수
+     */
+    @FunctionalInterface
+    private interface RowBinder {
+        /**
+         * @param statement 대상 문장
+         * @param offset    이 행의 첫 파라미터 앞 인덱스(첫 파라미터는 offset + 1)
+         * @param row       행 번호
+         */
+        void bind(PreparedStatement statement, int offset, int row) throws SQLException;
+    }
+
+    /**
+     * fromRow 부터 toRow 전까지의 행을 여러 행 INSERT 문으로 나눠 실행한다. 커밋은 호출하는 쪽에서 한다.
+     * 같은 행 수의 문장은 PreparedStatement 하나를 재사용하고, 마지막 나머지 행만 별도 문장으로 실행한다.
+     * 문장당 행 수가 1 이면 한 행짜리 문장을 addBatch 하고 rowsPerExecute 개마다 executeBatch 한다(reWriteBatchedInserts 적용).
+     *
+     * @param connection       커넥션
+     * @param insert           INSERT 문 생성기
+     * @param rowsPerStatement 설정된 문장당 행 수
+     * @param rowsPerExecute   한 행씩 배치로 실행할 때 executeBatch 당 행 수
+     * @param fromRow          시작 행(포함)
+     * @param toRow            끝 행(제외)
+     * @param binder           행 파라미터 설정 함수
+     * @return 삽입된 행 수, 드라이버가 알려주지 않으면(배치 재작성 등) UNKNOWN_ROWS
+     * @throws SQLException SQL 예외 발생 시
+     */
+    private int executeInsert(Connection connection, MultiRowInsertSql insert, int rowsPerStatement, int rowsPerExecute,
+                               int fromRow, int toRow, RowBinder binder) throws SQLException {
+        int rows = insert.clampRows(rowsPerStatement);
+        int columns = insert.getColumnCount();
+        if (rows == 1) {
+            int executeEvery = Math.max(1, rowsPerExecute);
+            int inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(insert.sql(1))) {
+                int pending = 0;
+                for (int row = fromRow; row < toRow; row++) {
+                    binder.bind(statement, 0, row);
+                    statement.addBatch(); // 배치에 문을 추가합니다.
+                    if (++pending == executeEvery) {
+                        inserted = addCounts(inserted, statement.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    inserted = addCounts(inserted, statement.executeBatch());
+                }
+            }
+            return inserted;
+        }
+
+        int inserted = 0;
+
+        int rowCount = toRow - fromRow;
+        int fullEnd = fromRow + rowCount - rowCount % rows;
+        if (fullEnd > fromRow) {
+            try (PreparedStatement statement = connection.prepareStatement(insert.sql(rows))) {
+                for (int start = fromRow; start < fullEnd; start += rows) {
+                    for (int i = 0; i < rows; i++) {
+                        binder.bind(statement, i * columns, start + i);
+                    }
+                    inserted += statement.executeUpdate();
+                }
+            }
+        }
+        int remaining = toRow - fullEnd;
+        if (remaining > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(insert.sql(remaining))) {
+                for (int i = 0; i < remaining; i++) {
+                    binder.bind(statement, i * columns, fullEnd + i);
+                }
+                inserted += statement.executeUpdate();
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * executeBatch 결과 건수를 더한다. 하나라도 건수를 모르면(SUCCESS_NO_INFO) UNKNOWN_ROWS 를 반환한다.
+     */
+    private static int addCounts(int total, int[] counts) {
+        if (total == UNKNOWN_ROWS) {
+            return UNKNOWN_ROWS;
+        }
+        for (int count : counts) {
+            if (count < 0) {
+                return UNKNOWN_ROWS;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * COPY 적재 방식 사용 여부
+     */
+    private boolean isCopyLoader() {
+        return COPY_LOADER.equalsIgnoreCase(passLoader);
+    }
+
+    /**
+     * COPY 적재 작업
+     */
+    @FunctionalInterface
+    private interface CopyWork {
+        int load() throws SQLException;
+    }
+
+    /**
+     * COPY 로 적재하고 커밋한다. 실패하면 롤백한다(임시 테이블에 들어간 행도 함께 롤백된다).
+     *
+     * @param connection     자동 커밋이 꺼진 커넥션
+     * @param rowCount       적재할 행 수
+     * @param work           COPY 적재 작업
+     * @param lastPassMillis 같은 트랜잭션에서 기록할 설치위치별 마지막 통과 시간
+     * @throws SQLException SQL 예외 발생 시
+     */
+    private void loadByCopy(Connection connection, int rowCount, CopyWork work, Map<String, Long> lastPassMillis) throws SQLException {
+        try {
+            int merged = work.load();
+            if (watermarkTableStore.isEnabled()) {
+                watermarkTableStore.upsert(connection, lastPassMillis);
+            }
+            connection.commit();
+            pipelineMetrics.recordRows(PASS_TABLE, rowCount, merged);
+            logger.debug("TL_MVMNEQ_PASS COPY load committed, {} new rows", merged);
         } catch (SQLException e) {
-            logger.error("Failed to execute pass batch insert", e);
+            connection.rollback();
+            pipelineMetrics.recordFailedRows(PASS_TABLE, rowCount);
             throw e;
-        } catch (Throwable e) {
-            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 엔티티 범위의 설치위치별 마지막 통과 시간
+     */
+    private static Map<String, Long> lastPassTimes(List<TL_MVMNEQ_PASSEntity> passEntities, int fromRow, int toRow) {
+        Map<String, Long> lastPassMillis = new HashMap<>();
+        for (int row = fromRow; row < toRow; row++) {
+            TL_MVMNEQ_PASS_IdEntity id = passEntities.get(row).getId();
+            if (id.getPassTime() != null) {
+                lastPassMillis.merge(id.getInstllcId(), id.getPassTime().getTime(), Math::max);
+            }
+        }
+        return lastPassMillis;
+    }
+
+    /**
+     * 차량 묶음 범위의 마지막 통과 시간
+     */
+    private static Map<String, Long> lastPassTimes(VehiclePassChunk chunk, int fromRow, int toRow) {
+        if (fromRow >= toRow) {
+            return Map.of();
+        }
+        long last = Long.MIN_VALUE;
+        for (int row = fromRow; row < toRow; row++) {
+            last = Math.max(last, chunk.getPassTime(row));
+        }
+        return Map.of(chunk.getInstllcId(), last);
+    }
+
+    /**
+     * 100배한 정수 값을 numeric 파라미터로 설정한다.
+     */
+    private static void setScaled(PreparedStatement statement, int index, int scaled) throws SQLException {
+        if (scaled == VehiclePassChunk.NULL_SCALED) {
+            statement.setNull(index, Types.NUMERIC);
+        } else {
+            statement.setBigDecimal(index, BigDecimal.valueOf(scaled, VehiclePassChunk.SCALE));
         }
     }
 }
@@ -0,0 +1,287 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kong.unirest.*;
+import kong.unirest.apache.ApacheClient;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : AtlystHttpClient.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ATLYST API 전용 HTTP 클라이언트.
+ * 전역 Unirest 설정 대신 별도 UnirestInstance 와 연결 풀(PoolingHttpClientConnectionManager)을 사용하므로
+ * 병렬 장소 호출이 TLS 핸드셰이크를 매번 하지 않고 keep-alive 된 연결을 재사용한다.
+ * Accept-Encoding: gzip 으로 요청하고, 응답은 문자열로 만들지 않고 GZIPInputStream 으로 풀면서 바로 JSON 파서에 넘긴다.
+ * 새로 연 연결 수와 요청 수로 연결 재사용률을 계산해 통계로 남긴다. (Unirest 3 / HttpClient 4 는 HTTP/1.1 만 지원)
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           응답 크기 지표(slka.api.response.size) 기록
+ */
+@Component
+public class AtlystHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(AtlystHttpClient.class);
+
+    @Value("${api.timeout.connect}")
+    private int connectTimeout;
+
+    @Value("${api.timeout.socket}")
+    private int socketTimeout;
+
+    // 연결 풀 전체 / 호스트(route)별 최대 연결 수. ATLYST 는 호스트가 하나이므로 두 값이 실제 동시 연결 수를 정한다.
+    @Value("${api.pool.max-total:20}")
+    private int maxTotal;
+
+    @Value("${api.pool.max-per-route:20}")
+    private int maxPerRoute;
+
+    // 서버가 Keep-Alive 헤더를 주지 않을 때 유휴 연결을 유지할 시간(ms), 서버 값이 있으면 둘 중 작은 값
+    @Value("${api.pool.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    // 이 시간(ms) 이상 쉰 연결은 재사용 전에 검사
+    @Value("${api.pool.validate-after-inactivity-ms:2000}")
+    private int validateAfterInactivityMs;
+
+    // 연결 최대 수명(ms)
+    @Value("${api.pool.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    // gzip 해제 버퍼 크기
+    @Value("${api.gzip.buffer-size:8192}")
+    private int gzipBufferSize;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    private UnirestInstance unirest;
+    private CloseableHttpClient httpClient;
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder requestNanos = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder gzipResponses = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+
+    /**
+     * 응답 상태, 헤더, (gzip 이 풀린) 바디 스트림을 받아 결과를 만드는 함수
+     *
+     * @param <T> 결과 타입
+     */
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+        T read(int status, Headers headers, InputStream body) throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        // 새 연결을 만들 때마다 세어서 재사용률을 계산
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory = (route, config) -> {
+            connectionsOpened.increment();
+            return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+        };
+        connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                connectionFactory, null, null, connectionTtlMs, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMs) : keepAliveMs;
+                })
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .disableContentCompression() // gzip 은 decode() 에서 스트림으로 직접 해제
+                .disableCookieManagement()
+                .build();
+
+        unirest = Unirest.spawnInstance();
+        unirest.config()
+                .connectTimeout(connectTimeout)
+                .socketTimeout(socketTimeout)
+                .setDefaultHeader("Accept-Encoding", "gzip")
+                .instrumentWith(summary -> {
+                    long start = System.nanoTime();
+                    return (response, exception) -> {
+                        requests.increment();
+                        requestNanos.add(System.nanoTime() - start);
+                        if (exception != null) {
+                            failures.increment();
+                        }
+                    };
+                })
+                .httpClient(new ApacheClient(httpClient, unirest.config()));
+        logger.info("ATLYST HTTP client pool: max-total {}, max-per-route {}, keep-alive {} ms, ttl {} ms",
+                maxTotal, maxPerRoute, keepAliveMs, connectionTtlMs);
+    }
+
+    /**
+     * POST 요청을 보내고 응답 바디를 스트림으로 reader 에 넘긴다. 스트림은 reader 가 끝나면 닫혀서 연결이 풀로 돌아간다.
+     *
+     * @param url    요청 URL
+     * @param apiKey API 키
+     * @param body   요청 바디
+     * @param reader 응답 처리 함수
+     * @param <T>    결과 타입
+     * @return reader 결과
+     * @throws UnirestException 요청 실패 시, reader 에서 예외가 난 경우 UnirestParsingException
+     */
+    public <T> T post(String url, String apiKey, String body, ResponseReader<T> reader) throws UnirestException {
+        String path = URI.create(url).getPath();
+        HttpResponse<T> response = unirest.post(url)
+                .header("APIKEY", apiKey)
+                .body(body)
+                .asObject(raw -> {
+                    CountingInputStream counting = new CountingInputStream(raw.getContent(), wireBytes);
+                    try (InputStream content = decode(raw, counting)) {
+                        return reader.read(raw.getStatus(), raw.getHeaders(), content);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        pipelineMetrics.recordResponseSize(path, counting.getCount());
+                    }
+                });
+        // Unirest 는 reader 에서 난 예외를 body=null 인 응답으로 감싸므로 다시 던짐
+        if (response.getParsingError().isPresent()) {
+            throw response.getParsingError().get();
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Content-Encoding 이 gzip 이면 스트림으로 푼다. content 는 전송된 바이트 수를 세는 스트림이다.
+     */
+    private InputStream decode(RawResponse raw, InputStream content) throws IOException {
+        String encoding = raw.getHeaders().getFirst("Content-Encoding");
+        if (encoding != null && encoding.trim().equalsIgnoreCase("gzip")) {
+            gzipResponses.increment();
+            return new GZIPInputStream(content, gzipBufferSize);
+        }
+        return content;
+    }
+
+    /**
+     * 연결 풀 상태(사용 중, 유휴, 대기, 최대)
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * 연결 재사용률(0~1), 요청이 없으면 0
+     */
+    public double getConnectionReuseRatio() {
+        long total = requests.sum();
+        return total == 0 ? 0.0 : Math.max(0.0, 1.0 - (double) connectionsOpened.sum() / total);
+    }
+
+    /**
+     * 누적 요청/연결 통계를 로그로 출력한다.
+     */
+    public void logStats() {
+        long total = requests.sum();
+        PoolStats pool = getPoolStats();
+        logger.info("ATLYST HTTP stats: requests={}, failures={}, avg={} ms, connections opened={}, reuse={}%, gzip responses={}, wire bytes={}, pool leased={}, available={}, pending={}, max={}",
+                total, failures.sum(), total == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(requestNanos.sum() / total),
+                connectionsOpened.sum(), String.format("%.1f", getConnectionReuseRatio() * 100), gzipResponses.sum(), wireBytes.sum(),
+                pool.getLeased(), pool.getAvailable(), pool.getPending(), pool.getMax());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (unirest != null) {
+            unirest.shutDown();
+        }
+        if (httpClient != null) {
+            try {
+                httpClient.close(); // 연결 풀과 유휴 연결 정리 스레드 종료
+            } catch (IOException e) {
+                logger.warn("Failed to close ATLYST HTTP client", e);
+            }
+        }
+    }
+
+    /**
+     * 읽은 바이트 수를 세는 스트림
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+        private long count; // 이 응답에서 읽은 바이트 수(응답 하나는 한 스레드에서 읽음)
+
+        private CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.increment();
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counter.add(read);
+                count += read;
+            }
+            return read;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import kong.unirest.UnirestException;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : AtlystHttpStatusException.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ATLYST 가 2xx 가 아닌 상태 코드(503, 429 등)로 응답했을 때 던지는 예외.
+ * 빈 결과와 구분되도록 요청 실패로 던지므로 apiRetry 재시도와 장소 재시도 대기열(SiteRetryQueue)을 거친다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class AtlystHttpStatusException extends UnirestException {
+    private final int status;
+
+    public AtlystHttpStatusException(int status, String url) {
+        super("HTTP " + status + " from " + url);
+        this.status = status;
+    }
+
+    /**
+     * 응답 상태 코드
+     */
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,267 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : AtlystStubServer.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : api.transport=stub 일 때 같은 프로세스에서 띄우는 ATLYST 흉내 HTTP 서버(com.sun.net.httpserver).
+ * list_sites 와 individual_vehicles 를 seed 로 정해지는 합성 데이터(SyntheticAtlystData)로 응답하므로 같은 요청에는 항상 같은 응답을 준다.
+ * start_timestamp 이후부터 현재 시간까지의 차량을 limit 건까지 돌려주고 페이지를 나눠 받아도 같은 차량이 나온다(catch-up 시험 가능).
+ * 장소 수, 통행량 모양, 응답 지연, 오류 비율(HTTP 503), gzip 여부를 설정할 수 있다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           응답 생성을 SyntheticAtlystData(JsonGenerator 스트리밍, 통행량 모양)로 변경
+ */
+@Component
+public class AtlystStubServer {
+    private static final Logger logger = LoggerFactory.getLogger(AtlystStubServer.class);
+
+    public static final String LIST_SITES_PATH = "/api/list_sites";
+    public static final String INDIVIDUAL_VEHICLES_PATH = "/api/individual_vehicles";
+
+    // ATLYST 호출 방식(atlyst: 실제 서버, stub: 이 서버)
+    @Value("${api.transport:stub}")
+    private String transport;
+
+    // 0 이면 빈 포트를 사용
+    @Value("${api.stub.port:0}")
+    private int port;
+
+    @Value("${api.stub.threads:8}")
+    private int threads;
+
+    @Value("${api.stub.seed:20261018}")
+    private long seed;
+
+    @Value("${api.stub.sites:800}")
+    private int sites;
+
+    @Value("${api.stub.survey-periods-per-site:100}")
+    private int surveyPeriodsPerSite;
+
+    // 장소 하나의 평시(낮, peak 밖) 시간당 차량 수
+    @Value("${api.stub.vehicles-per-hour:1000}")
+    private double vehiclesPerHour;
+
+    // 출퇴근 peak 중심 시각(현지 시간), 폭(시간), 평시 대비 배율
+    @Value("${api.stub.peak-hours:8,17.5}")
+    private double[] peakHours;
+
+    @Value("${api.stub.peak-width-hours:1.5}")
+    private double peakWidthHours;
+
+    @Value("${api.stub.peak-factor:3.0}")
+    private double peakFactor;
+
+    // 22시~6시 평시 대비 배율
+    @Value("${api.stub.night-factor:0.2}")
+    private double nightFactor;
+
+    // North 방향 비율
+    @Value("${api.stub.north-share:0.5}")
+    private double northShare;
+
+    // lane_index 0, 1, ... 비율
+    @Value("${api.stub.lane-weights:0.5,0.5}")
+    private double[] laneWeights;
+
+    // 차종:비율 목록
+    @Value("${api.stub.classes:Short Cycle:0.3,Long Cycle:0.7}")
+    private String classes;
+
+    // 응답 전 지연 시간(ms)
+    @Value("${api.stub.latency-ms:0}")
+    private long latencyMs;
+
+    // HTTP 503 으로 응답할 비율(0~1)
+    @Value("${api.stub.error-rate:0.0}")
+    private double errorRate;
+
+    // 요청에 Accept-Encoding: gzip 이 있으면 gzip 으로 응답
+    @Value("${api.stub.gzip:true}")
+    private boolean gzip;
+
+    @Value("${scheduler.vehicles.survey-zone:Asia/Colombo}")
+    private String zone;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SyntheticAtlystData data;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        String[] classSpecs = classes.split(",");
+        String[] classNames = new String[classSpecs.length];
+        double[] classWeights = new double[classSpecs.length];
+        for (int i = 0; i < classSpecs.length; i++) {
+            int colon = classSpecs[i].lastIndexOf(':');
+            classNames[i] = (colon < 0 ? classSpecs[i] : classSpecs[i].substring(0, colon)).trim();
+            classWeights[i] = colon < 0 ? 1.0 : Double.parseDouble(classSpecs[i].substring(colon + 1).trim());
+        }
+        data = new SyntheticAtlystData(seed, new SyntheticAtlystData.TrafficProfile(vehiclesPerHour, peakHours, peakWidthHours,
+                peakFactor, nightFactor, northShare, laneWeights, classNames, classWeights), ZoneId.of(zone));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "atlyst-stub-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(LIST_SITES_PATH, exchange -> handle(exchange, this::listSites));
+        server.createContext(INDIVIDUAL_VEHICLES_PATH, exchange -> handle(exchange, this::individualVehicles));
+        server.start();
+        logger.info("ATLYST stub server listening on {}: {} sites, {} vehicles/hour/site (peaks {} x{}, night x{}), latency {} ms, error rate {}, gzip {}",
+                url(""), sites, vehiclesPerHour, Arrays.toString(peakHours), peakFactor, nightFactor, latencyMs, errorRate, gzip);
+    }
+
+    public boolean isEnabled() {
+        return "stub".equalsIgnoreCase(transport);
+    }
+
+    /**
+     * stub 서버 URL
+     *
+     * @param path 경로
+     * @return http://127.0.0.1:포트 + 경로
+     */
+    public String url(String path) {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + path;
+    }
+
+    public long getServed() {
+        return served.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * 요청을 읽고 응답 바디를 쓸 함수를 돌려준다(요청 오류는 응답 헤더를 보내기 전에 발생).
+     */
+    @FunctionalInterface
+    private interface PayloadBuilder {
+        PayloadWriter build(byte[] requestBody) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * 지연, 오류, gzip 을 적용해서 응답한다.
+     */
+    private void handle(HttpExchange exchange, PayloadBuilder builder) throws IOException {
+        try {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("x-amzn-RequestId", UUID.randomUUID().toString());
+            exchange.getResponseHeaders().add("X-Cache", "Miss from stub");
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failed.increment();
+                byte[] error = "{\"detail\":\"stub error\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(503, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+
+            PayloadWriter payload = builder.build(requestBody);
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean compress = gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+            if (compress) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (OutputStream out = compress ? new GZIPOutputStream(exchange.getResponseBody(), 8192) : exchange.getResponseBody();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                payload.write(generator);
+            }
+            served.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | IOException e) {
+            failed.increment();
+            logger.warn("ATLYST stub request {} failed", exchange.getRequestURI(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 장소 목록. 조사 기간은 오늘 날짜 기준으로 정해지므로 하루 동안 같은 응답을 준다.
+     */
+    private PayloadWriter listSites(byte[] requestBody) {
+        LocalDate today = LocalDate.now(ZoneId.of(zone));
+        return generator -> data.writeSites(generator, sites, surveyPeriodsPerSite, today);
+    }
+
+    /**
+     * start_timestamp 이후 현재 시간까지의 차량을 limit 건까지 쓴다.
+     */
+    private PayloadWriter individualVehicles(byte[] requestBody) throws IOException {
+        JsonNode request = objectMapper.readTree(requestBody);
+        int siteId = request.path("site_id").asInt();
+        int limit = request.path("limit").asInt(10000);
+        String startText = request.path("start_timestamp").asText(null);
+        long startMillis = startText == null
+                ? System.currentTimeMillis() - Duration.ofHours(1).toMillis()
+                : Timestamp.valueOf(LocalDateTime.parse(startText)).getTime(); // 요청은 서버 기본 시간대의 Timestamp 문자열
+        long now = System.currentTimeMillis();
+        return generator -> data.writeVehicles(generator, siteId, startMillis, now, limit);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            logger.info("ATLYST stub server stopped: {} responses, {} errors", served.sum(), failed.sum());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import kong.unirest.UnirestException;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : AtlystTransport.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ATLYST API 호출 방식을 추상화한 인터페이스.
+ * MCATLYSTApiService 는 이 인터페이스로만 요청을 보내고, 응답은 상태/헤더/바디 스트림으로 ResponseReader 에 넘겨받는다.
+ * 실제 ATLYST 서버와 로컬 stub 서버(AtlystStubServer) 중 어디로 보낼지는 구현체가 정한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           2xx 가 아닌 응답은 AtlystHttpStatusException 으로 던지도록 계약 명시
+ */
+public interface AtlystTransport {
+
+    /**
+     * list_sites 를 호출한다.
+     *
+     * @param reader 응답 처리 함수
+     * @param <T>    결과 타입
+     * @return reader 결과
+     * @throws UnirestException 요청 실패 시, 2xx 가 아닌 응답이면 AtlystHttpStatusException
+     */
+    <T> T listSites(AtlystHttpClient.ResponseReader<T> reader) throws UnirestException;
+
+    /**
+     * individual_vehicles 를 호출한다.
+     *
+     * @param requestBody 요청 바디(site_id, start_timestamp, limit)
+     * @param reader      응답 처리 함수
+     * @param <T>         결과 타입
+     * @return reader 결과
+     * @throws UnirestException 요청 실패 시, 2xx 가 아닌 응답이면 AtlystHttpStatusException
+     */
+    <T> T individualVehicles(String requestBody, AtlystHttpClient.ResponseReader<T> reader) throws UnirestException;
+}
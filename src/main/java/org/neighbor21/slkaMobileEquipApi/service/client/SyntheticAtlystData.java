@@ -0,0 +1,302 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : SyntheticAtlystData.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : seed 로 정해지는 ATLYST 합성 데이터(list_sites, individual_vehicles)를 JsonGenerator 로 바로 쓰는 생성기.
+ * 차량마다 Map/DTO/BigDecimal/DateTimeFormatter 를 만들지 않고 시간과 소수는 char 버퍼에 직접 써서 수백만 건도 몇 초 안에 만든다.
+ * 차량 유무와 속성은 (seed, 장소, 100 ms 칸) 해시로만 정해지므로 같은 구간을 어떻게 나눠 요청해도 같은 차량이 나온다.
+ * 통행량은 TrafficProfile 로 정한다(출퇴근 시간 peak, 야간 감소, 방향/차선/차종 비율, 장소별 0.5~1.5 배 차이).
+ * stub 서버(AtlystStubServer)와 벤치마크에서 같이 사용하며, 상태가 없으므로 여러 스레드에서 동시에 사용할 수 있다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public final class SyntheticAtlystData {
+
+    // 차량 유무를 정하는 시간 칸 크기(ms), 장소 하나의 시간당 차량 수는 최대 36000
+    public static final long SLOT_MILLIS = 100L;
+    public static final String VEHICLE_CLASS_FIELD = "class_scheme(Shared Path 02)";
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final double SLOTS_PER_HOUR = 3_600_000.0 / SLOT_MILLIS;
+    private static final String[] HEADINGS = {"North", "South"};
+
+    private final long seed;
+    private final TrafficProfile profile;
+    private final ZoneId zoneId;
+    // 현지 시간 분(0~1439)별 칸당 차량 확률(장소 배율 1 기준)
+    private final double[] slotProbabilityByMinute;
+    private final double[] cumulativeLaneWeights;
+    private final double[] cumulativeClassWeights;
+
+    /**
+     * 통행량 모양
+     *
+     * @param vehiclesPerHour 장소 하나의 평시(낮, peak 밖) 시간당 차량 수
+     * @param peakHours       peak 중심 시각(현지 시간, 예: 8.0, 17.5)
+     * @param peakWidthHours  peak 폭(정규분포 표준편차, 시간)
+     * @param peakFactor      peak 중심에서 평시 대비 배율
+     * @param nightFactor     22시~6시 평시 대비 배율
+     * @param northShare      North 방향 비율(0~1), 나머지는 South
+     * @param laneWeights     lane_index 0, 1, ... 의 비율
+     * @param classNames      차종 이름
+     * @param classWeights    차종 비율(classNames 와 같은 순서)
+     */
+    public record TrafficProfile(double vehiclesPerHour, double[] peakHours, double peakWidthHours, double peakFactor,
+                                 double nightFactor, double northShare, double[] laneWeights,
+                                 String[] classNames, double[] classWeights) {
+
+        public TrafficProfile {
+            if (classNames.length == 0 || classNames.length != classWeights.length) {
+                throw new IllegalArgumentException("classNames and classWeights must have the same non-zero length");
+            }
+            if (laneWeights.length == 0) {
+                throw new IllegalArgumentException("laneWeights must not be empty");
+            }
+        }
+
+        /**
+         * 하루 종일 같은 통행량(peak, 야간 감소 없음)
+         *
+         * @param vehiclesPerHour 장소 하나의 시간당 차량 수
+         * @return 통행량 모양
+         */
+        public static TrafficProfile flat(double vehiclesPerHour) {
+            return new TrafficProfile(vehiclesPerHour, new double[0], 1.0, 1.0, 1.0, 0.5,
+                    new double[]{0.5, 0.5}, new String[]{"Short Cycle", "Long Cycle"}, new double[]{0.5, 0.5});
+        }
+    }
+
+    public SyntheticAtlystData(long seed, TrafficProfile profile, ZoneId zoneId) {
+        this.seed = seed;
+        this.profile = profile;
+        this.zoneId = zoneId;
+        this.slotProbabilityByMinute = new double[MINUTES_PER_DAY];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            double hour = minute / 60.0;
+            double shape = (hour >= 22 || hour < 6) ? profile.nightFactor() : 1.0;
+            for (double peak : profile.peakHours()) {
+                double distance = Math.abs(hour - peak);
+                distance = Math.min(distance, 24 - distance); // 자정을 넘는 peak
+                double z = distance / profile.peakWidthHours();
+                shape += (profile.peakFactor() - 1.0) * Math.exp(-0.5 * z * z);
+            }
+            slotProbabilityByMinute[minute] = Math.max(0.0, profile.vehiclesPerHour() * shape / SLOTS_PER_HOUR);
+        }
+        this.cumulativeLaneWeights = cumulative(profile.laneWeights());
+        this.cumulativeClassWeights = cumulative(profile.classWeights());
+    }
+
+    /**
+     * afterMillis 보다 늦고 untilMillis 보다 늦지 않은 차량을 시간 순서로 limit 건까지 JSON 배열로 쓴다.
+     *
+     * @param generator   출력 대상
+     * @param siteId      장소 ID
+     * @param afterMillis 시작 시간(epoch millis, 미포함)
+     * @param untilMillis 끝 시간(epoch millis, 포함)
+     * @param limit       최대 차량 수
+     * @return 쓴 차량 수
+     * @throws IOException 출력 실패 시
+     */
+    public int writeVehicles(JsonGenerator generator, int siteId, long afterMillis, long untilMillis, int limit) throws IOException {
+        ZoneRules rules = zoneId.getRules();
+        double siteScale = 0.5 + unit(mix(seed, siteId, Long.MIN_VALUE));
+        char[] buffer = new char[32];
+        long offsetHour = Long.MIN_VALUE;
+        long offsetMillis = 0L;
+        int count = 0;
+
+        generator.writeStartArray();
+        for (long slot = Math.floorDiv(afterMillis, SLOT_MILLIS) + 1; slot * SLOT_MILLIS <= untilMillis && count < limit; slot++) {
+            long passMillis = slot * SLOT_MILLIS;
+            long hour = Math.floorDiv(passMillis, 3_600_000L);
+            if (hour != offsetHour) { // 시간대 오프셋은 한 시간에 한 번만 계산
+                offsetHour = hour;
+                offsetMillis = rules.getOffset(Instant.ofEpochMilli(passMillis)).getTotalSeconds() * 1000L;
+            }
+            long localMillis = passMillis + offsetMillis;
+            int minuteOfDay = (int) (Math.floorMod(localMillis, 86_400_000L) / 60_000L);
+            long hash = mix(seed, siteId, slot);
+            if (unit(hash) >= slotProbabilityByMinute[minuteOfDay] * siteScale) {
+                continue;
+            }
+
+            generator.writeStartObject();
+            generator.writeNumberField("site_id", siteId);
+            int length = formatDateTime(buffer, passMillis, true);
+            buffer[length++] = 'Z';
+            generator.writeFieldName("timestamp");
+            generator.writeString(buffer, 0, length);
+            generator.writeFieldName("localtime");
+            generator.writeString(buffer, 0, formatDateTime(buffer, localMillis, true));
+            generator.writeStringField("heading", unit(mix(hash, 1, 0L)) < profile.northShare() ? HEADINGS[0] : HEADINGS[1]);
+            generator.writeFieldName("velocity(m/s)");
+            generator.writeNumber(buffer, 0, formatHundredths(buffer, 500 + (int) (unit(mix(hash, 2, 0L)) * 3000)));
+            generator.writeFieldName("length(m)");
+            generator.writeNumber(buffer, 0, formatHundredths(buffer, 100 + (int) (unit(mix(hash, 3, 0L)) * 1100)));
+            generator.writeNumberField("headway(s)", 1 + (int) (unit(mix(hash, 4, 0L)) * 120));
+            generator.writeStringField(VEHICLE_CLASS_FIELD, profile.classNames()[pick(cumulativeClassWeights, unit(mix(hash, 5, 0L)))]);
+            generator.writeNumberField("lane_index", pick(cumulativeLaneWeights, unit(mix(hash, 6, 0L))));
+            generator.writeEndObject();
+            count++;
+        }
+        generator.writeEndArray();
+        return count;
+    }
+
+    /**
+     * 장소 0 ~ siteCount-1 의 목록을 JSON 배열로 쓴다. 조사 기간은 today 기준이므로 같은 날에는 같은 목록이 나온다.
+     *
+     * @param generator      출력 대상
+     * @param siteCount      장소 수
+     * @param periodsPerSite 장소별 조사 기간 수
+     * @param today          기준 날짜(현지)
+     * @throws IOException 출력 실패 시
+     */
+    public void writeSites(JsonGenerator generator, int siteCount, int periodsPerSite, LocalDate today) throws IOException {
+        long todayMillis = today.toEpochDay() * 86_400_000L; // 현지 시간을 UTC 로 보고 문자열만 만듦
+        char[] buffer = new char[32];
+        generator.writeStartArray();
+        for (int siteId = 0; siteId < siteCount; siteId++) {
+            long hash = mix(seed, siteId, -1L);
+            generator.writeStartObject();
+            generator.writeNumberField("pk", siteId);
+            generator.writeNumberField("site_id", siteId);
+            generator.writeStringField("name", "SITE NAME " + siteId);
+            generator.writeStringField("description", "EXAMPLE ROAD " + siteId);
+            generator.writeNumberField("latitude", -1.032914 + unit(mix(hash, 1, 1L)) * 0.01);
+            generator.writeNumberField("longitude", 1.032914 + unit(mix(hash, 2, 1L)) * 0.01);
+            generator.writeStringField("asset_management_id", String.valueOf(Math.floorMod(hash, 36) + 1));
+            generator.writeStringField("class_scheme_name", "VRX");
+            generator.writeArrayFieldStart("survey_periods");
+            for (int j = 0; j < periodsPerSite; j++) {
+                // 오늘 -5일 ~ +4일 사이에 시작해서 2주 동안
+                long start = todayMillis + (Math.floorMod(mix(hash, j, 0L), 10) - 5) * 86_400_000L + j * 600_000L;
+                generator.writeStartObject();
+                generator.writeFieldName("start_time");
+                generator.writeString(buffer, 0, formatDateTime(buffer, start, false));
+                generator.writeFieldName("end_time");
+                generator.writeString(buffer, 0, formatDateTime(buffer, start + 14 * 86_400_000L, false));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("classifications");
+            for (String className : new String[]{"AR0", "SV"}) {
+                generator.writeStartObject();
+                generator.writeStringField("name", className);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * epoch millis 를 yyyy-MM-ddTHH:mm:ss[.SSS] 로 buffer 에 쓴다(UTC 기준).
+     *
+     * @return 쓴 글자 수
+     */
+    static int formatDateTime(char[] buffer, long epochMillis, boolean withMillis) {
+        long days = Math.floorDiv(epochMillis, 86_400_000L);
+        int millisOfDay = (int) Math.floorMod(epochMillis, 86_400_000L);
+        // days -> 년월일 (proleptic Gregorian)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        put(buffer, 0, year, 4);
+        buffer[4] = '-';
+        put(buffer, 5, month, 2);
+        buffer[7] = '-';
+        put(buffer, 8, day, 2);
+        buffer[10] = 'T';
+        put(buffer, 11, millisOfDay / 3_600_000, 2);
+        buffer[13] = ':';
+        put(buffer, 14, millisOfDay / 60_000 % 60, 2);
+        buffer[16] = ':';
+        put(buffer, 17, millisOfDay / 1000 % 60, 2);
+        if (!withMillis) {
+            return 19;
+        }
+        buffer[19] = '.';
+        put(buffer, 20, millisOfDay % 1000, 3);
+        return 23;
+    }
+
+    /**
+     * 1/100 단위 정수를 소수점 둘째 자리 숫자로 buffer 에 쓴다(예: 1234 -> 12.34).
+     *
+     * @return 쓴 글자 수
+     */
+    static int formatHundredths(char[] buffer, int hundredths) {
+        int whole = hundredths / 100;
+        int digits = whole < 10 ? 1 : whole < 100 ? 2 : whole < 1000 ? 3 : String.valueOf(whole).length();
+        put(buffer, 0, whole, digits);
+        buffer[digits] = '.';
+        put(buffer, digits + 1, hundredths % 100, 2);
+        return digits + 3;
+    }
+
+    private static void put(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += Math.max(0.0, weights[i]);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] = sum > 0 ? cumulative[i] / sum : (i + 1.0) / cumulative.length;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double unit) {
+        int index = Arrays.binarySearch(cumulative, unit);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    /**
+     * seed, 키 두 개를 섞은 64 비트 해시(SplitMix64 마무리 함수)
+     */
+    static long mix(long seed, long a, long b) {
+        long z = seed ^ (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 해시를 [0, 1) 실수로 바꾼다.
+     */
+    static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,132 @@
+package org.neighbor21.slkaMobileEquipApi.service.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import kong.unirest.UnirestException;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.client
+ * fileName       : UnirestAtlystTransport.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 연결 풀 클라이언트(AtlystHttpClient)로 HTTP POST 를 보내는 AtlystTransport 구현체.
+ * api.transport=atlyst 이면 api.url.* 의 실제 ATLYST 서버로, stub 이면 같은 프로세스에서 띄운 AtlystStubServer 로 보낸다.
+ * stub 도 실제 HTTP(연결 풀, gzip, JSON 스트리밍 파싱)를 거치므로 네트워크부터 DB 까지 전체 경로를 오프라인으로 부하 시험할 수 있다.
+ * 호출은 엔드포인트별 Bulkhead 와 CircuitBreaker 를 거치며, 연결 오류와 HTTP 5xx 응답을 실패로 기록한다.
+ * 2xx 가 아닌 응답은 reader 결과를 버리고 AtlystHttpStatusException 을 던진다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           엔드포인트별 CircuitBreaker/Bulkhead 적용
+ * 26. 10. 18.        kjg08           요청 소요 시간 지표(slka.api.request) 기록
+ * 26. 10. 18.        kjg08           2xx 가 아닌 응답을 AtlystHttpStatusException 으로 던짐
+ */
+@Component
+public class UnirestAtlystTransport implements AtlystTransport {
+    private static final Logger logger = LoggerFactory.getLogger(UnirestAtlystTransport.class);
+
+    @Value("${api.url.list_sites}")
+    private String listSitesUrl;
+
+    @Value("${api.url.individual_vehicles}")
+    private String individualVehiclesUrl;
+
+    @Value("${api.key}")
+    private String apiKey;
+
+    @Autowired
+    private AtlystHttpClient atlystHttpClient;
+
+    @Autowired
+    private AtlystStubServer atlystStubServer;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    @Qualifier("listSitesCircuitBreaker")
+    private CircuitBreaker listSitesCircuitBreaker;
+
+    @Autowired
+    @Qualifier("individualVehiclesCircuitBreaker")
+    private CircuitBreaker individualVehiclesCircuitBreaker;
+
+    @Autowired
+    @Qualifier("listSitesBulkhead")
+    private Bulkhead listSitesBulkhead;
+
+    @Autowired
+    @Qualifier("individualVehiclesBulkhead")
+    private Bulkhead individualVehiclesBulkhead;
+
+    @PostConstruct
+    public void init() {
+        if (atlystStubServer.isEnabled()) {
+            listSitesUrl = atlystStubServer.url(AtlystStubServer.LIST_SITES_PATH);
+            individualVehiclesUrl = atlystStubServer.url(AtlystStubServer.INDIVIDUAL_VEHICLES_PATH);
+        }
+        logger.info("ATLYST transport: list_sites {}, individual_vehicles {}", listSitesUrl, individualVehiclesUrl);
+    }
+
+    @Override
+    public <T> T listSites(AtlystHttpClient.ResponseReader<T> reader) throws UnirestException {
+        return guardedPost("list_sites", listSitesCircuitBreaker, listSitesBulkhead, listSitesUrl, "", reader);
+    }
+
+    @Override
+    public <T> T individualVehicles(String requestBody, AtlystHttpClient.ResponseReader<T> reader) throws UnirestException {
+        return guardedPost("individual_vehicles", individualVehiclesCircuitBreaker, individualVehiclesBulkhead, individualVehiclesUrl, requestBody, reader);
+    }
+
+    /**
+     * Bulkhead 자리와 CircuitBreaker 허가를 받은 뒤 요청을 보내고 결과를 CircuitBreaker 에 기록한다.
+     * 자리가 없거나 CircuitBreaker 가 열려 있으면 요청을 보내지 않고 BulkheadFullException / CallNotPermittedException 을 던진다.
+     * ATLYST 는 5xx 도 정상 응답으로 돌아오므로 상태 코드를 보고 실패로 기록한다.
+     * 2xx 가 아닌 응답은 빈 결과로 성공 처리되지 않도록 CircuitBreaker 에 기록한 뒤 AtlystHttpStatusException 을 던진다.
+     */
+    private <T> T guardedPost(String endpoint, CircuitBreaker circuitBreaker, Bulkhead bulkhead, String url, String requestBody,
+                              AtlystHttpClient.ResponseReader<T> reader) throws UnirestException {
+        bulkhead.acquirePermission();
+        try {
+            circuitBreaker.acquirePermission();
+            long start = System.nanoTime();
+            int[] status = new int[1];
+            T result;
+            try {
+                result = atlystHttpClient.post(url, apiKey, requestBody, (code, headers, body) -> {
+                    status[0] = code;
+                    return reader.read(code, headers, body);
+                });
+            } catch (RuntimeException e) {
+                long duration = System.nanoTime() - start;
+                pipelineMetrics.recordApiRequest(endpoint, 0, duration);
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, e);
+                throw e;
+            }
+            long duration = System.nanoTime() - start;
+            pipelineMetrics.recordApiRequest(endpoint, status[0], duration);
+            if (status[0] >= 500) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new AtlystHttpStatusException(status[0], url));
+            } else {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+            if (status[0] < 200 || status[0] >= 300) {
+                throw new AtlystHttpStatusException(status[0], url);
+            }
+            return result;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
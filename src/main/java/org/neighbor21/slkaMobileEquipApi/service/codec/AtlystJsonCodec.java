@@ -0,0 +1,483 @@
+package org.neighbor21.slkaMobileEquipApi.service.codec;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.IndividualVehiclesDTO;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.codec
+ * fileName       : AtlystJsonCodec.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ATLYST API 응답(JSON)을 DTO 로 변환하는 공용 코덱.
+ * ObjectMapper 와 DTO 타입에 묶인 ObjectReader 를 한 번만 만들어서 재사용하므로(스레드 안전) 호출마다 역직렬화기를 다시 만들지 않는다.
+ * 응답 종류별로 역직렬화 횟수, 건수, 소요 시간을 누적한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           개별 차량 스트리밍을 VehiclePassChunk 직접 변환으로 변경
+ * 26. 10. 18.        kjg08           역직렬화 시간 지표(slka.json.decode) 기록
+ * 26. 10. 18.        kjg08           개별 차량 스트리밍이 건너뛴 기록을 포함한 응답 기록 수도 반환
+ * 26. 10. 18.        kjg08           timestamp 빠른 변환에서 월별 일수, 시/분/초, 시간대 범위 검사
+ */
+@Component
+public class AtlystJsonCodec {
+    private static final Logger logger = LoggerFactory.getLogger(AtlystJsonCodec.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader listSitesReader = objectMapper.readerFor(new TypeReference<List<ListSiteDTO>>() {
+    });
+    private final ObjectReader vehiclesReader = objectMapper.readerFor(new TypeReference<List<IndividualVehiclesDTO>>() {
+    });
+    private final ObjectWriter writer = objectMapper.writer();
+
+    // 차종 필드명은 장소의 차량 분류 체계에 따라 "class_scheme(체계명)" 형태로 바뀐다
+    private static final String VEHICLE_CLASS_FIELD_PREFIX = "class_scheme(";
+    private final CodeInterner codeInterner = new CodeInterner(1024);
+
+    private final DecodeStats listSitesStats = new DecodeStats("list_sites");
+    private final DecodeStats vehiclesStats = new DecodeStats("individual_vehicles");
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    /**
+     * 응답 종류별 역직렬화 통계. 여러 스레드에서 동시에 누적한다.
+     */
+    public static final class DecodeStats {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private DecodeStats(String name) {
+            this.name = name;
+        }
+
+        private void record(long itemCount, long elapsedNanos) {
+            calls.increment();
+            items.add(itemCount);
+            nanos.add(elapsedNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getItems() {
+            return items.sum();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        @Override
+        public String toString() {
+            long callCount = getCalls();
+            double avgMillis = callCount == 0 ? 0.0 : nanos.sum() / 1_000_000.0 / callCount;
+            return String.format("%s: calls=%d, items=%d, total=%d ms, avg=%.3f ms/call", name, callCount, getItems(), getTotalMillis(), avgMillis);
+        }
+    }
+
+    /**
+     * List Sites 응답 바디를 변환한다.
+     *
+     * @param body 응답 바디
+     * @return 장소 목록
+     * @throws JsonProcessingException JSON 파싱 실패 시
+     */
+    public List<ListSiteDTO> readListSites(String body) throws JsonProcessingException {
+        long start = System.nanoTime();
+        List<ListSiteDTO> sites = listSitesReader.readValue(body);
+        record(listSitesStats, sites.size(), System.nanoTime() - start);
+        return sites;
+    }
+
+    /**
+     * Individual Vehicles 응답 바디 전체를 리스트로 변환한다.
+     *
+     * @param body   응답 바디
+     * @param siteId 차량 데이터에 설정할 장소 ID
+     * @return 개별 차량 목록
+     * @throws JsonProcessingException JSON 파싱 실패 시
+     */
+    public List<IndividualVehiclesDTO> readVehicles(String body, Integer siteId) throws JsonProcessingException {
+        long start = System.nanoTime();
+        List<IndividualVehiclesDTO> vehicles = vehiclesReader.readValue(body);
+        vehicles.forEach(vehicle -> vehicle.setSiteId(siteId));
+        record(vehiclesStats, vehicles.size(), System.nanoTime() - start);
+        return vehicles;
+    }
+
+    /**
+     * 개별 차량 스트리밍 변환 결과
+     *
+     * @param vehicles 변환한 차량 수(건너뛴 기록 제외)
+     * @param records  응답에 들어 있던 기록 수(건너뛴 기록 포함), limit 과 비교해서 다음 페이지가 있는지 판단할 때 사용
+     */
+    public record ChunkReadResult(int vehicles, int records) {
+        public static final ChunkReadResult EMPTY = new ChunkReadResult(0, 0);
+    }
+
+    /**
+     * Individual Vehicles 응답 바디(JSON 배열)를 JsonParser 토큰 단위로 읽어서 VehiclePassChunk 에 바로 채우고,
+     * chunkSize 개마다 chunkConsumer 를 호출한다. DTO/엔티티를 거치지 않으며 응답 전체를 메모리에 올리지 않는다.
+     * 통과 시간, 방향, 차선이 없는 기록은 tl_mvmneq_pass 의 키를 만들 수 없으므로 건너뛴다.
+     * 소요 시간에는 파싱 시간만 포함하고 chunkConsumer 실행 시간은 제외한다.
+     *
+     * @param body          응답 바디 스트림
+     * @param siteId        장소 ID
+     * @param chunkSize     묶음 크기
+     * @param chunkConsumer 묶음을 받아 저장하는 함수
+     * @return 읽은 차량 수와 응답 기록 수
+     * @throws IOException JSON 파싱 또는 스트림 읽기 실패 시
+     */
+    public ChunkReadResult readVehiclePassChunks(InputStream body, Integer siteId, int chunkSize, Consumer<VehiclePassChunk> chunkConsumer) throws IOException {
+        int size = Math.max(1, chunkSize);
+        int total = 0;
+        int skipped = 0;
+        long parseNanos = 0L;
+        long start = System.nanoTime();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return ChunkReadResult.EMPTY; // 빈 바디
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of vehicles but got " + first);
+            }
+
+            VehiclePassChunk chunk = new VehiclePassChunk(siteId, size);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long passTime = Long.MIN_VALUE;
+                String heading = null;
+                int laneIndex = Integer.MIN_VALUE;
+                int speed = VehiclePassChunk.NULL_SCALED;
+                int length = VehiclePassChunk.NULL_SCALED;
+                String vehicleClass = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName(); // 필드명은 JsonFactory 심볼 테이블에서 공유되는 인스턴스
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    switch (field) {
+                        case "timestamp" -> passTime = readEpochMillis(parser, value);
+                        case "heading" -> heading = codeInterner.intern(parser.getText());
+                        case "lane_index" -> laneIndex = parser.getValueAsInt();
+                        case "velocity(m/s)" -> speed = readScaled(parser);
+                        case "length(m)" -> length = readScaled(parser);
+                        default -> {
+                            if (field.startsWith(VEHICLE_CLASS_FIELD_PREFIX)) {
+                                vehicleClass = codeInterner.intern(parser.getText());
+                            } else {
+                                parser.skipChildren(); // site_id, localtime, headway(s) 등은 저장하지 않음
+                            }
+                        }
+                    }
+                }
+
+                if (passTime == Long.MIN_VALUE || heading == null || laneIndex == Integer.MIN_VALUE) {
+                    skipped++;
+                    continue;
+                }
+                chunk.add(passTime, heading, laneIndex, speed, length, vehicleClass);
+                total++;
+                if (chunk.isFull()) {
+                    parseNanos += System.nanoTime() - start;
+                    chunkConsumer.accept(chunk);
+                    chunk = new VehiclePassChunk(siteId, size);
+                    start = System.nanoTime();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Unexpected token in vehicle array: " + parser.currentToken());
+            }
+            parseNanos += System.nanoTime() - start;
+            if (chunk.size() > 0) {
+                chunkConsumer.accept(chunk);
+            }
+        } finally {
+            record(vehiclesStats, total, parseNanos);
+        }
+        if (skipped > 0) {
+            logger.warn("Skipped {} vehicles without timestamp/heading/lane_index for siteId {}", skipped, siteId);
+        }
+        return new ChunkReadResult(total, total + skipped);
+    }
+
+    /**
+     * timestamp 값을 epoch 밀리초로 읽는다. Jackson 의 Timestamp 역직렬화와 같이 시간대가 없으면 UTC 로 본다.
+     */
+    static long readEpochMillis(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        char[] buf = parser.getTextCharacters();
+        int off = parser.getTextOffset();
+        int len = parser.getTextLength();
+        long millis = parseIsoMillis(buf, off, len);
+        if (millis != Long.MIN_VALUE) {
+            return millis;
+        }
+        String text = parser.getText();
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(text);
+            if (parsed.isSupported(ChronoField.OFFSET_SECONDS)) {
+                return OffsetDateTime.from(parsed).toInstant().toEpochMilli();
+            }
+            return LocalDateTime.from(parsed).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeException e) {
+            throw new JsonParseException(parser, "Invalid vehicle timestamp: " + text, e);
+        }
+    }
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss[.SSS][Z|+HH:mm] 형식을 객체 생성 없이 epoch 밀리초로 변환한다.
+     * 소수점 아래 4자리 이상은 OffsetDateTime.toInstant().toEpochMilli() 와 같이 버린다.
+     *
+     * @return epoch 밀리초, 형식이 다르거나 없는 날짜/시간이면 Long.MIN_VALUE(DateTimeFormatter 로 다시 해석)
+     */
+    static long parseIsoMillis(char[] buf, int off, int len) {
+        if (len < 19 || buf[off + 4] != '-' || buf[off + 7] != '-' || (buf[off + 10] != 'T' && buf[off + 10] != ' ')
+                || buf[off + 13] != ':' || buf[off + 16] != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(buf, off, 4);
+        int month = digits(buf, off + 5, 2);
+        int day = digits(buf, off + 8, 2);
+        int hour = digits(buf, off + 11, 2);
+        int minute = digits(buf, off + 14, 2);
+        int second = digits(buf, off + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int pos = off + 19;
+        int end = off + len;
+        int millis = 0;
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            int fractionDigits = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                if (fractionDigits < 3) {
+                    millis = millis * 10 + (buf[pos] - '0');
+                }
+                fractionDigits++;
+                pos++;
+            }
+            if (fractionDigits == 0) {
+                return Long.MIN_VALUE;
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        int offsetSeconds = 0;
+        if (pos < end) {
+            char sign = buf[pos];
+            if (sign == 'Z') {
+                pos++;
+            } else if (sign == '+' || sign == '-') {
+                if (end - pos < 3) {
+                    return Long.MIN_VALUE;
+                }
+                int offsetHours = digits(buf, pos + 1, 2);
+                pos += 3;
+                int offsetMinutes = 0;
+                if (pos < end && buf[pos] == ':') {
+                    pos++;
+                }
+                if (end - pos >= 2) {
+                    offsetMinutes = digits(buf, pos, 2);
+                    pos += 2;
+                }
+                if ((offsetHours | offsetMinutes) < 0 || offsetMinutes > 59 || offsetHours * 60 + offsetMinutes > 18 * 60) {
+                    return Long.MIN_VALUE;
+                }
+                offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+            }
+        }
+        if (pos != end) {
+            return Long.MIN_VALUE;
+        }
+
+        long epochSeconds = daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSeconds * 1000L + millis;
+    }
+
+    /**
+     * 고정 길이 숫자를 읽는다.
+     *
+     * @return 숫자 값, 숫자가 아닌 문자가 있으면 -1
+     */
+    private static int digits(char[] buf, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            char c = buf[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 월의 일수(그레고리력 윤년 포함)
+     */
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * 1970-01-01 부터의 일수를 계산한다(그레고리력).
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 숫자 값을 소수점 2자리(반올림, PostgreSQL numeric 과 같은 방식)까지 100배한 정수로 읽는다.
+     */
+    static int readScaled(JsonParser parser) throws IOException {
+        char[] buf = parser.getTextCharacters();
+        int off = parser.getTextOffset();
+        int len = parser.getTextLength();
+        int end = off + len;
+        int pos = off;
+        boolean negative = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negative = buf[pos] == '-';
+            pos++;
+        }
+
+        long integerPart = 0;
+        int integerDigits = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9' && integerDigits < 9) {
+            integerPart = integerPart * 10 + (buf[pos++] - '0');
+            integerDigits++;
+        }
+        int fraction = 0;
+        int roundDigit = 0;
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            int fractionDigits = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (buf[pos] - '0');
+                } else if (fractionDigits == 2) {
+                    roundDigit = buf[pos] - '0';
+                }
+                fractionDigits++;
+                pos++;
+            }
+            if (fractionDigits == 1) {
+                fraction *= 10;
+            }
+        }
+        if (pos != end || integerDigits == 0) {
+            // 지수 표기, 아주 큰 값 등은 BigDecimal 로 처리
+            try {
+                return new BigDecimal(parser.getText()).setScale(VehiclePassChunk.SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new JsonParseException(parser, "Invalid vehicle measurement: " + parser.getText(), e);
+            }
+        }
+
+        long scaled = integerPart * 100 + fraction + (roundDigit >= 5 ? 1 : 0);
+        if (scaled > Integer.MAX_VALUE) {
+            throw new JsonParseException(parser, "Vehicle measurement out of range: " + parser.getText());
+        }
+        return (int) (negative ? -scaled : scaled);
+    }
+
+    /**
+     * 객체를 JSON 문자열로 변환한다.
+     *
+     * @param value 변환할 객체
+     * @return JSON 문자열
+     * @throws JsonProcessingException 변환 실패 시
+     */
+    public String writeValueAsString(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    // 역직렬화 통계를 누적하고 지표로 기록
+    private void record(DecodeStats stats, long itemCount, long elapsedNanos) {
+        stats.record(itemCount, elapsedNanos);
+        pipelineMetrics.recordDecode(stats.getName(), elapsedNanos);
+    }
+
+    /**
+     * List Sites 역직렬화 통계
+     *
+     * @return DecodeStats 객체
+     */
+    public DecodeStats getListSitesStats() {
+        return listSitesStats;
+    }
+
+    /**
+     * Individual Vehicles 역직렬화 통계
+     *
+     * @return DecodeStats 객체
+     */
+    public DecodeStats getVehiclesStats() {
+        return vehiclesStats;
+    }
+
+    /**
+     * 누적된 역직렬화 통계를 로그로 출력한다.
+     */
+    public void logStats() {
+        logger.info("JSON decode stats -> {} | {}", listSitesStats, vehiclesStats);
+    }
+}
@@ -0,0 +1,52 @@
+package org.neighbor21.slkaMobileEquipApi.service.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.codec
+ * fileName       : CodeInterner.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 차량 방향(heading), 차종(class) 처럼 값의 종류가 몇 개 안되는 코드 문자열을 하나의 인스턴스로 공유하는 클래스.
+ * 파싱 중 만들어진 문자열은 바로 버려지고 묶음(chunk)에는 공유 인스턴스만 남는다. 종류가 maxSize 를 넘으면 더 이상 등록하지 않는다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class CodeInterner {
+
+    private final Map<String, String> codes = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * CodeInterner 생성자.
+     *
+     * @param maxSize 최대 등록 개수
+     */
+    public CodeInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 같은 값의 공유 인스턴스를 반환한다.
+     *
+     * @param value 코드 문자열
+     * @return 공유 인스턴스(등록 개수 초과 시 입력값 그대로)
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (codes.size() >= maxSize) {
+            return value;
+        }
+        existing = codes.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -1,25 +1,26 @@
 package org.neighbor21.slkaMobileEquipApi.service.conversion;
 
 import io.github.resilience4j.retry.Retry;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_CUREntity;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_LOGEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_CUR_IdEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_LOG_IdEntity;
 import org.neighbor21.slkaMobileEquipApi.service.BatchService;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.SiteFingerprintCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 장소 데이터를 처리하고 저장하는 서비스 클래스.
@@ -32,28 +33,32 @@ public class SiteService {
     @Autowired
     private BatchService batchService;
 
+    @Autowired
+    private SiteFingerprintCache siteFingerprintCache;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     @Autowired
     @Qualifier("dbRetry")
     private Retry retry; // Use dbRetry for database operations Retry 객체 주입
 
-    @PersistenceContext
-    private EntityManager entityManager;
-
     /**
      * 장소 목록을 받아와서 현재 설치 위치와 설치 이력을 관리하는 메소드.
      *
      * @param locations List<ListSiteDTO> 장소 목록
-     * @return int 처리된 항목 수
+     * @return int 저장된 항목 수(저장에 실패한 CUR/LOG 는 제외)
      */
-    @Transactional
     public int saveSiteLogs(List<ListSiteDTO> locations) {
-        List<TL_MVMNEQ_CUREntity> curEntities = new ArrayList<>();
+        // 같은 장소가 두 번 오면 마지막 값으로 upsert (한 문장 안의 중복 키는 ON CONFLICT DO UPDATE 오류)
+        Map<String, TL_MVMNEQ_CUREntity> curEntityMap = new LinkedHashMap<>();
         List<TL_MVMNEQ_LOGEntity> logEntities = new ArrayList<>();
+        long conversionStart = System.nanoTime();
         // 각 장소에 대해 처리
         for (ListSiteDTO location : locations) {
             try {
                 TL_MVMNEQ_CUREntity curEntity = createCurrentEntity(location);
-                curEntities.add(curEntity);
+                curEntityMap.put(curEntity.getInstllcId().getInstllcId(), curEntity);
 
                 TL_MVMNEQ_LOGEntity logEntity = createLogEntity(location);
                 logEntities.add(logEntity);
@@ -61,33 +66,40 @@ public class SiteService {
                 logger.error("TL_MVMNEQ_CUR/LOG 처리 중 오류 발생", e);
             }
         }
+        List<TL_MVMNEQ_CUREntity> curEntities = new ArrayList<>(curEntityMap.values());
+        pipelineMetrics.recordConversion("site", System.nanoTime() - conversionStart);
 
-        // 엔티티 리스트를 배치로 삽입
+        // 엔티티 리스트를 JDBC 배치로 upsert/삽입 (chunk 당 1회 왕복)
+        int savedItems = 0;
+        boolean saved = true;
         try {
             long dbStartTime = System.currentTimeMillis();
-            Retry.decorateRunnable(retry, () -> batchService.batchInsertWithRetry(curEntities, entityManager::persist)).run();
+            Retry.decorateCheckedRunnable(retry, () -> batchService.upsertCurBatch(curEntities)).run();
             long dbEndTime = System.currentTimeMillis();
-            logger.info("TL_MVMNEQ_CUR Batch insertion successful, total time taken: {} ms, number of items inserted: {}", (dbEndTime - dbStartTime), curEntities.size());
-            // 하이버네이트의 1차 캐시를 플러쉬하고 클리어하여 DB와의 불일치 방지
-            entityManager.flush(); // 변경 사항을 데이터베이스에 반영
-            entityManager.clear(); // 영속성 컨텍스트를 비움
-        } catch (Exception e) {
-            logger.error("TL_MVMNEQ_CUR 배치 삽입 실패", e);
+            logger.info("TL_MVMNEQ_CUR Batch upsert successful, total time taken: {} ms, number of items upserted: {}", (dbEndTime - dbStartTime), curEntities.size());
+            savedItems += curEntities.size();
+        } catch (Throwable e) {
+            logger.error("TL_MVMNEQ_CUR 배치 upsert 실패", e);
+            saved = false;
             // 예외 발생 시, 추가적인 예외 처리를 수행할 수 있습니다. 예: 알림 발송, 재시도 로직 등
         }
 
         try {
             long dbStartTime = System.currentTimeMillis();
-            Retry.decorateRunnable(retry, () -> batchService.batchInsertWithRetry(logEntities, entityManager::persist)).run();
+            Retry.decorateCheckedRunnable(retry, () -> batchService.insertLogBatch(logEntities)).run();
             long dbEndTime = System.currentTimeMillis();
             logger.info("TL_MVMNEQ_LOG Batch insertion successful, total time taken: {} ms, number of items inserted: {}", (dbEndTime - dbStartTime), logEntities.size());
-            // 하이버네이트의 1차 캐시를 플러쉬하고 클리어하여 DB와의 불일치 방지
-            entityManager.flush(); // 변경 사항을 데이터베이스에 반영
-            entityManager.clear(); // 영속성 컨텍스트를 비움
-        } catch (Exception e) {
+            savedItems += logEntities.size();
+        } catch (Throwable e) {
             logger.error("TL_MVMNEQ_LOG 배치 삽입 실패", e);
+            saved = false;
+        }
+
+        // 둘 다 저장된 경우에만 지문을 갱신해서, 실패한 장소는 다음 주기에 다시 저장되도록 한다
+        if (saved) {
+            siteFingerprintCache.markSaved(locations);
         }
-        return curEntities.size() + logEntities.size();
+        return savedItems;
     }
 
     /**
@@ -1,13 +1,14 @@
 package org.neighbor21.slkaMobileEquipApi.service.conversion;
 
 import io.github.resilience4j.retry.Retry;
-import org.neighbor21.slkaMobileEquipApi.config.Constants;
 import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
 import org.neighbor21.slkaMobileEquipApi.dto.listSite.SurveyPeriodDTO;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_PERIODEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_PERIOD_IdEntity;
-import org.neighbor21.slkaMobileEquipApi.jpaRepository.TL_MVMNEQ_PERIODRepository;
 import org.neighbor21.slkaMobileEquipApi.service.BatchService;
+import org.neighbor21.slkaMobileEquipApi.service.util.PeriodSequenceAllocator;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.SurveyPeriodIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,13 +16,16 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * packageName    : org.neighbor21.slkaMobileEquipApi.service.conversion
@@ -34,6 +38,9 @@ import java.util.stream.Collectors;
  * DATE              AUTHOR             NOTE
  * -----------------------------------------------------------
  * 24. 5. 21.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           이미 저장된 조사 기간은 건너뛰고 새 조사 기간만 삽입
+ * 26. 10. 18.        kjg08           순번을 메모리에서 할당(시작 시 한 번 로드, 충돌 시 재동기화)
+ * 26. 10. 18.        kjg08           엔티티 변환 시간 지표 기록
  */
 @Service
 public class SurveyPeriodService {
@@ -41,11 +48,20 @@ public class SurveyPeriodService {
     private static final Logger logger = LoggerFactory.getLogger(SurveyPeriodService.class);
 
     @Autowired
-    private TL_MVMNEQ_PERIODRepository tlMvmneqPeriodRepository;
+    private DataSource dataSource;
 
     @Autowired
     private BatchService batchService;
 
+    @Autowired
+    private SurveyPeriodIndex surveyPeriodIndex;
+
+    @Autowired
+    private PeriodSequenceAllocator periodSequenceAllocator;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     @Autowired
     @Qualifier("dbRetry")
     private Retry retry; // Retry 객체 주입
@@ -58,37 +74,23 @@ public class SurveyPeriodService {
      */
     @Transactional
     public int saveSurveyPeriods(List<ListSiteDTO> periods) {
-        List<TL_MVMNEQ_PERIODEntity> periodEntities = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        long conversionStart = System.nanoTime();
 
-        // 설치위치id 에 대한 최대순번을 한번에 가져오기 위해 먼저 모든 설치 위치 ID를 수집
-        List<String> instllcIds = periods.stream()
-                .map(period -> period.getSite_id().toString())
-                .distinct()
-                .collect(Collectors.toList());
-
-        // 모든 설치 위치 ID에 대한 최대 순번을 한 번에 조회
-        Map<String, Integer> maxSequenceMap = findMaxSequenceNoByInstllcIdsWithLogging(instllcIds);
-
-        // 엔티티 생성 및 순번 미리 할당. 같은 설치위치 id에 연속으로 starttime이 들어오면 순번 계산 시 중복 또는 불확실한 값 발생 방지
+        // 설치위치별로 아직 저장되지 않은 조사 기간만 골라낸다 (instllc_id, start_dt, end_dt 기준)
+        Map<String, List<TL_MVMNEQ_PERIODEntity>> newPeriodsBySite = new LinkedHashMap<>();
+        int knownPeriods = 0;
         for (ListSiteDTO period : periods) {
+            if (period.getSurvey_periods() == null) {
+                continue;
+            }
             List<SurveyPeriodDTO> surveyPeriods = period.getSurvey_periods().stream()
                     .sorted(Comparator.comparing(SurveyPeriodDTO::getStart_time))
                     .toList();
 
             String instllcId = period.getSite_id().toString();
-            Integer currentMaxSequence = maxSequenceMap.getOrDefault(instllcId, 0);
-
-            // 각 조사 기간을 엔티티로 변환하여 리스트에 추가
-            for (int i = 0; i < surveyPeriods.size(); i++) {
-                SurveyPeriodDTO periodDTO = surveyPeriods.get(i);
-                TL_MVMNEQ_PERIODEntity periodEntity = new TL_MVMNEQ_PERIODEntity();
-                TL_MVMNEQ_PERIOD_IdEntity periodIdEntity = new TL_MVMNEQ_PERIOD_IdEntity();
-
-                periodIdEntity.setCollectionDatetime(new Timestamp(System.currentTimeMillis()));
-                periodIdEntity.setSequenceNo(currentMaxSequence + i + 1);
-                periodIdEntity.setInstllcId(instllcId);
-
+            Set<SurveyPeriodIndex.PeriodKey> seen = new HashSet<>();
+            for (SurveyPeriodDTO periodDTO : surveyPeriods) {
                 String startTimeStr = periodDTO.getStart_time().replace("T", " ");
                 String endTimeStr = periodDTO.getEnd_time().replace("T", " ");
 
@@ -96,11 +98,19 @@ public class SurveyPeriodService {
                     LocalDateTime startTime = LocalDateTime.parse(startTimeStr, formatter);
                     LocalDateTime endTime = LocalDateTime.parse(endTimeStr, formatter);
 
-                    periodEntity.setId(periodIdEntity);
-                    periodEntity.setStartTime(Timestamp.valueOf(startTime).toLocalDateTime());
-                    periodEntity.setEndTime(Timestamp.valueOf(endTime).toLocalDateTime());
+                    SurveyPeriodIndex.PeriodKey key = SurveyPeriodIndex.PeriodKey.of(startTime, endTime);
+                    if (surveyPeriodIndex.contains(instllcId, key) || !seen.add(key)) {
+                        knownPeriods++;
+                        continue;
+                    }
 
-                    periodEntities.add(periodEntity);
+                    TL_MVMNEQ_PERIODEntity periodEntity = new TL_MVMNEQ_PERIODEntity();
+                    TL_MVMNEQ_PERIOD_IdEntity periodIdEntity = new TL_MVMNEQ_PERIOD_IdEntity();
+                    periodIdEntity.setInstllcId(instllcId);
+                    periodEntity.setId(periodIdEntity);
+                    periodEntity.setStartTime(startTime);
+                    periodEntity.setEndTime(endTime);
+                    newPeriodsBySite.computeIfAbsent(instllcId, id -> new ArrayList<>()).add(periodEntity);
                 } catch (DateTimeParseException e) {
                     logger.error("날짜를 파싱하지 못했습니다: 시작 시간 - {}, 종료 시간 - {}", startTimeStr, endTimeStr, e);
                     // 날짜 파싱 예외 발생 시 예외를 던져 호출자가 처리할 수 있도록 합니다.
@@ -108,21 +118,51 @@ public class SurveyPeriodService {
                 }
             }
         }
+        pipelineMetrics.recordConversion("survey_period", System.nanoTime() - conversionStart);
+        logger.info("Survey period sync: {} new periods in {} sites, {} already stored periods skipped",
+                newPeriodsBySite.values().stream().mapToInt(List::size).sum(), newPeriodsBySite.size(), knownPeriods);
+        if (newPeriodsBySite.isEmpty()) {
+            return 0;
+        }
+
+        // 순번 미리 할당(메모리). 같은 설치위치 id에 연속으로 starttime이 들어오면 순번 계산 시 중복 또는 불확실한 값 발생 방지
+        List<TL_MVMNEQ_PERIODEntity> periodEntities = new ArrayList<>();
+        Timestamp collectionDatetime = new Timestamp(System.currentTimeMillis());
+        newPeriodsBySite.forEach((instllcId, siteEntities) -> {
+            int firstSequence = periodSequenceAllocator.allocate(instllcId, siteEntities.size());
+            for (int i = 0; i < siteEntities.size(); i++) {
+                TL_MVMNEQ_PERIOD_IdEntity periodIdEntity = siteEntities.get(i).getId();
+                periodIdEntity.setCollectionDatetime(collectionDatetime);
+                periodIdEntity.setSequenceNo(firstSequence + i);
+            }
+            periodEntities.addAll(siteEntities);
+        });
 
         // 엔티티 리스트를 배치로 삽입
         long dbStartTime = System.currentTimeMillis();
         try {
             // JDBC를 사용한 배치 삽입
-            Retry.decorateRunnable(retry, () -> {
+            int inserted = Retry.decorateSupplier(retry, () -> {
                 try {
-                    batchService.insertPeriodeBatch(periodEntities);
+                    return batchService.insertPeriodeBatch(periodEntities);
                 } catch (SQLException e) {
                     throw new RuntimeException(e);
                 }
-            }).run();
+            }).get();
+            if (inserted != BatchService.UNKNOWN_ROWS && inserted < periodEntities.size()) {
+                // 순번 충돌(다른 인스턴스가 쓴 경우 등)로 일부 행이 ON CONFLICT DO NOTHING 으로 빠짐
+                logger.warn("TL_MVMNEQ_PERIOD {} of {} rows conflicted, resyncing sequences of {} sites",
+                        periodEntities.size() - inserted, periodEntities.size(), newPeriodsBySite.size());
+                resyncSites(newPeriodsBySite.keySet());
+            } else {
+                // 저장에 성공한 조사 기간을 인덱스에 추가
+                periodEntities.forEach(entity -> surveyPeriodIndex.add(entity.getId().getInstllcId(),
+                        SurveyPeriodIndex.PeriodKey.of(entity.getStartTime(), entity.getEndTime())));
+            }
         } catch (Exception e) {
             logger.error("TL_MVMNEQ_PERIOD 배치 삽입 실패", e);
             // 예외 발생 시 추가적인 예외 처리를 수행할 수 있습니다. 예: 알림 발송, 재시도 로직 등
+            resyncSites(newPeriodsBySite.keySet());
         }
         long dbEndTime = System.currentTimeMillis();
         logger.info("TL_MVMNEQ_PERIOD Batch insertion successful, total time taken: {} ms, number of items inserted: {}", (dbEndTime - dbStartTime), periodEntities.size());
@@ -130,25 +170,57 @@ public class SurveyPeriodService {
     }
 
     /**
-     * 설치위치 ID에 대한 최대 순번 값을 조회한 결과를 Map으로 변환하는 메소드.
-     *
-     * @param instllcIds 설치위치 ID 리스트
-     * @return 최대 순번 값이 포함된 Map
+     * tl_mvmneq_period 를 한 번 읽어서 조사 기간 인덱스와 설치위치별 최대 순번을 채운다. 시작할 때 호출한다.
+     * 실패하면 빈 상태로 시작한다(모든 조사 기간을 새 것으로 처리하고 순번은 1부터).
      */
-    public Map<String, Integer> findMaxSequenceNoByInstllcIdsWithLogging(List<String> instllcIds) {
-        Map<String, Integer> maxSequenceMap = new HashMap<>();
+    public void loadKnownPeriods() {
+        String query = "SELECT instllc_id, sqno, start_dt, end_dt FROM srlk.tl_mvmneq_period";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            int count = loadPeriods(preparedStatement);
+            logger.info("Loaded {} survey periods and sequence numbers from tl_mvmneq_period", count);
+        } catch (SQLException e) {
+            logger.error("Failed to load survey periods from DB, every survey period will be treated as new", e);
+        }
+    }
 
-        int batchSize = Constants.DEFAULT_BATCH_SIZE; // 배치 크기를 설정
-        for (int i = 0; i < instllcIds.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, instllcIds.size());
-            List<String> batch = instllcIds.subList(i, end);
-            List<Object[]> results = tlMvmneqPeriodRepository.findMaxSequenceNoByInstllcIds(batch);
+    /**
+     * 저장이 실패하거나 충돌한 설치위치의 조사 기간과 최대 순번을 DB 에서 다시 읽는다.
+     *
+     * @param instllcIds 설치위치 ID 목록
+     */
+    private void resyncSites(Collection<String> instllcIds) {
+        String query = "SELECT instllc_id, sqno, start_dt, end_dt FROM srlk.tl_mvmneq_period WHERE instllc_id = ANY (?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setArray(1, connection.createArrayOf("varchar", instllcIds.toArray()));
+            int count = loadPeriods(preparedStatement);
+            logger.info("Resynced {} survey periods of {} sites from tl_mvmneq_period", count, instllcIds.size());
+        } catch (SQLException e) {
+            logger.error("Failed to resync survey periods of {} sites", instllcIds.size(), e);
+        }
+    }
 
-            for (Object[] result : results) {
-                maxSequenceMap.put((String) result[0], ((Number) result[1]).intValue());
+    /**
+     * 조회 결과를 조사 기간 인덱스와 순번 할당기에 반영한다.
+     *
+     * @return 읽은 행 수
+     */
+    private int loadPeriods(PreparedStatement preparedStatement) throws SQLException {
+        preparedStatement.setFetchSize(10000); // 전체 결과를 한 번에 메모리에 올리지 않음(자동 커밋 꺼진 커넥션)
+        int count = 0;
+        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                String instllcId = resultSet.getString("instllc_id");
+                periodSequenceAllocator.observe(instllcId, resultSet.getInt("sqno"));
+                Timestamp startTime = resultSet.getTimestamp("start_dt");
+                Timestamp endTime = resultSet.getTimestamp("end_dt");
+                if (startTime != null && endTime != null) {
+                    surveyPeriodIndex.add(instllcId, SurveyPeriodIndex.PeriodKey.of(startTime.toLocalDateTime(), endTime.toLocalDateTime()));
+                }
+                count++;
             }
         }
-
-        return maxSequenceMap;
+        return count;
     }
 }
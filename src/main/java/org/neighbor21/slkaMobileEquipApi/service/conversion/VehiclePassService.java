@@ -4,9 +4,11 @@ import io.github.resilience4j.retry.Retry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.IndividualVehiclesDTO;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
 import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_PASSEntity;
 import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_PASS_IdEntity;
 import org.neighbor21.slkaMobileEquipApi.service.BatchService;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
 import org.neighbor21.slkaMobileEquipApi.service.util.VehicleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,9 +20,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * packageName    : org.neighbor21.slkaMobileEquipApi.service.conversion
@@ -33,6 +35,13 @@ import java.util.concurrent.ConcurrentHashMap;
  * DATE              AUTHOR             NOTE
  * -----------------------------------------------------------
  * 24. 5. 21.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           VehiclePassChunk 저장 추가(차량별 DTO/엔티티 생성 없음)
+ * 26. 10. 18.        kjg08           삽입 재시도 시 checkpoint 이후부터 이어서 삽입
+ * 26. 10. 18.        kjg08           삽입이 커밋된 장소만 마지막 통과 시간을 바로 기록
+ * 26. 10. 18.        kjg08           saveVehiclePassChunk 가 저장 성공 여부를 반환
+ * 26. 10. 18.        kjg08           엔티티 변환 시간 지표 기록
+ * 26. 10. 18.        kjg08           saveVehiclePasses 가 삽입이 커밋된 뒤에만 이번 호출 장소의 마지막 통과 시간을 갱신
+ * 26. 10. 18.        kjg08           별도 맵(lastPassTimeMap) 제거, 첫 차량 간격은 LastVehiclePassTimeManager 의 진행 위치 기준(재시작 후에도 유지)
  */
 
 @Service
@@ -40,9 +49,6 @@ public class VehiclePassService {
 
     private static final Logger logger = LoggerFactory.getLogger(VehiclePassService.class);
 
-    // siteId별 마지막 통과 시간 저장
-    private final Map<Integer, Timestamp> lastPassTimeMap = new ConcurrentHashMap<>();
-
     @Autowired
     private BatchService batchService;
 
@@ -53,6 +59,12 @@ public class VehiclePassService {
     @Qualifier("dbRetry")
     private Retry retry;  // Retry 객체 주입
 
+    @Autowired
+    private VehicleUtils.LastVehiclePassTimeManager lastVehiclePassTimeManager;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     /**
      * 개별 차량 통과 정보를 받아와서 데이터베이스에 저장하는 메소드.
      *
@@ -61,11 +73,18 @@ public class VehiclePassService {
     @Transactional
     public void saveVehiclePasses(List<IndividualVehiclesDTO> vehicles) {
         List<TL_MVMNEQ_PASSEntity> passEntities = new ArrayList<>();
+        // 이번 호출에서 장소별 직전 차량의 통과 시간(간격 계산용)과 최대 통과 시간(삽입 커밋 후 반영)
+        Map<Integer, Timestamp> previousPassTimes = new HashMap<>();
+        Map<Integer, Timestamp> maxPassTimes = new HashMap<>();
+        long conversionStart = System.nanoTime();
         vehicles.forEach(vehicle -> {
             try {
                 Integer siteId = vehicle.getSiteId();
-                // 마지막 통과 시간 가져오기, 없으면 현재 시간
-                Timestamp lastPassTime = lastPassTimeMap.getOrDefault(siteId, new Timestamp(System.currentTimeMillis()));
+                // 마지막 통과 시간 가져오기(이번 호출의 직전 차량 → 저장된 진행 위치 순, 둘 다 없으면 간격 0)
+                Timestamp lastPassTime = previousPassTimes.get(siteId);
+                if (lastPassTime == null) {
+                    lastPassTime = lastVehiclePassTimeManager.findLastVehiclePassTime(siteId);
+                }
                 Timestamp currentTimestamp = new Timestamp(vehicle.getTimestamp().getTime());
 
                 TL_MVMNEQ_PASSEntity tlMvmneqPassEntity = new TL_MVMNEQ_PASSEntity();
@@ -82,8 +101,9 @@ public class VehiclePassService {
                 tlMvmneqPassEntity.setVehicleIntervalSeconds(VehicleUtils.calculateIntervarSeconds(currentTimestamp, lastPassTime));
                 tlMvmneqPassEntity.setVehicleClass(vehicle.getVehicleClass());
                 tlMvmneqPassEntity.setCollectionDatetime(new Timestamp(System.currentTimeMillis()));
-                // 현재 통과 시간을 마지막 통과 시간으로 업데이트
-                lastPassTimeMap.put(siteId, currentTimestamp);
+                // 현재 통과 시간을 이번 호출의 직전 통과 시간으로 기록, 공유 맵은 삽입이 커밋된 뒤에만 갱신
+                previousPassTimes.put(siteId, currentTimestamp);
+                maxPassTimes.merge(siteId, currentTimestamp, (a, b) -> a.after(b) ? a : b);
 
                 passEntities.add(tlMvmneqPassEntity);
             } catch (Exception e) {
@@ -91,17 +111,22 @@ public class VehiclePassService {
             }
         });
 
+        pipelineMetrics.recordConversion("vehicle_pass", System.nanoTime() - conversionStart);
+
         // 엔티티 리스트를 배치로 삽입
         long dbStartTime = System.currentTimeMillis();
+        boolean inserted = false;
         try {
-            // JDBC를 사용한 배치 삽입
+            // JDBC를 사용한 배치 삽입, 재시도 시 이미 커밋된 chunk 는 건너뜀
+            BatchService.Checkpoint checkpoint = new BatchService.Checkpoint();
             Retry.decorateRunnable(retry, () -> {
                 try {
-                    batchService.insertPassBatch(passEntities);
+                    batchService.insertPassBatch(passEntities, checkpoint);
                 } catch (SQLException e) {
                     throw new RuntimeException(e);
                 }
             }).run();
+            inserted = true;
         } catch (Exception e) {
             logger.error("TL_MVMNEQ_PASS 배치 삽입 실패", e);
         }
@@ -109,7 +134,58 @@ public class VehiclePassService {
         logger.info("TL_MVMNEQ_PASS Batch insertion successful, total time taken: {} ms, number of items inserted: {}", (dbEndTime - dbStartTime), passEntities.size());
 
         // 설치위치별 마지막 통과차량 통과 시간(중복 조회를 피하기 위해 마지막 시간을 저장 한 후 다음번 api 호출 input 값의 시간값을 저장한 값으로 설정한다.)
-        // 업데이트된 최신 통과 시간을 기록
-        lastPassTimeMap.forEach(VehicleUtils.LastVehiclePassTimeManager::updateLastVehiclePassTime);
+        // 이번 호출에서 삽입한 장소의 최신 통과 시간만 기록, 삽입이 실패하면 다음 호출에서 같은 구간을 다시 조회하도록 기록하지 않음
+        if (inserted) {
+            maxPassTimes.forEach(lastVehiclePassTimeManager::updateLastVehiclePassTime);
+        }
+    }
+
+    /**
+     * 컬럼 단위 차량 묶음을 데이터베이스에 저장하는 메소드.
+     * saveVehiclePasses 와 같은 규칙으로 차량 간 간격(초)을 계산하지만 차량마다 DTO/엔티티/Timestamp 객체를 만들지 않는다.
+     *
+     * @param chunk 한 장소의 차량 묶음
+     * @return 저장(커밋)에 성공했으면 true
+     */
+    public boolean saveVehiclePassChunk(VehiclePassChunk chunk) {
+        if (chunk.size() == 0) {
+            return true;
+        }
+        Integer siteId = chunk.getSiteId();
+        // 저장된 진행 위치(마지막 통과 시간) 가져오기, 없으면 첫 차량 간격은 0
+        Timestamp lastPassTime = lastVehiclePassTimeManager.findLastVehiclePassTime(siteId);
+        long previous = lastPassTime != null ? lastPassTime.getTime() : chunk.getPassTime(0);
+        long conversionStart = System.nanoTime();
+        for (int i = 0; i < chunk.size(); i++) {
+            long current = chunk.getPassTime(i);
+            chunk.setIntervalSeconds(i, (int) ((current - previous) / 1000));
+            previous = current;
+        }
+        pipelineMetrics.recordConversion("vehicle_pass_chunk", System.nanoTime() - conversionStart);
+
+        long dbStartTime = System.currentTimeMillis();
+        boolean inserted = false;
+        try {
+            BatchService.Checkpoint checkpoint = new BatchService.Checkpoint();
+            Retry.decorateRunnable(retry, () -> {
+                try {
+                    batchService.insertPassChunk(chunk, checkpoint);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }).run();
+            inserted = true;
+        } catch (Exception e) {
+            logger.error("TL_MVMNEQ_PASS 배치 삽입 실패 (siteId {})", siteId, e);
+        }
+        long dbEndTime = System.currentTimeMillis();
+        logger.info("TL_MVMNEQ_PASS chunk insertion for siteId {}, total time taken: {} ms, number of items inserted: {}", siteId, (dbEndTime - dbStartTime), chunk.size());
+
+        if (!inserted) {
+            return false; // 커밋되지 않은 구간은 다음 호출에서 다시 조회
+        }
+        // 이 장소의 마지막 통과 시간만 갱신(더 최신일 때만)하고 바로 파일 로그에 기록
+        lastVehiclePassTimeManager.updateLastVehiclePassTime(siteId, new Timestamp(chunk.getLastPassTime()));
+        return true;
     }
 }
@@ -0,0 +1,154 @@
+package org.neighbor21.slkaMobileEquipApi.service.fetch;
+
+import org.neighbor21.slkaMobileEquipApi.service.util.SurveyWindowIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.fetch
+ * fileName       : AdaptivePollScheduler.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소별로 다음 호출 시간(next due)을 정하는 적응형 호출 스케줄러.
+ * 다음 호출 시간 순서의 우선순위 큐에서 시간이 된 장소만 꺼내 주고, 호출 결과로 다음 호출 시간을 다시 정한다.
+ * 차량이 많은 장소는 관측한 통과율(EWMA)로 target-vehicles 만큼 쌓일 때쯤 다시 호출하고(min-interval 이상),
+ * 차량이 없는 장소는 호출 간격을 두 배씩 늘리고(max-interval 이하), 조사 기간(survey_periods) 밖이면서 차량도 없는 장소는 max-interval 로 늦춘다.
+ * cron 은 이 스케줄러를 확인하는 주기가 되므로 사용 시 scheduler.cron.IndividualVehicles 를 min-interval 이하로 설정한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           조사 기간 확인을 SurveyWindowIndex 로 변경
+ */
+@Component
+public class AdaptivePollScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePollScheduler.class);
+    // 통과율 EWMA 가중치(새 관측값 비율)
+    private static final double RATE_WEIGHT = 0.5;
+
+    @Value("${scheduler.vehicles.adaptive.enabled:false}")
+    private boolean enabled;
+
+    // 가장 짧은 호출 간격(ms), 처음 보는 장소와 호출에 실패한 장소도 이 간격으로 다시 호출
+    @Value("${scheduler.vehicles.adaptive.min-interval-ms:60000}")
+    private long minIntervalMs;
+
+    // 가장 긴 호출 간격(ms), 차량이 없거나 조사 기간 밖인 장소의 상한
+    @Value("${scheduler.vehicles.adaptive.max-interval-ms:3600000}")
+    private long maxIntervalMs;
+
+    // 한 번 호출에 받을 목표 차량 수
+    @Value("${scheduler.vehicles.adaptive.target-vehicles:2000}")
+    private int targetVehicles;
+
+    @Autowired
+    private SurveyWindowIndex surveyWindowIndex;
+
+    private final PriorityQueue<SiteSchedule> dueQueue = new PriorityQueue<>(Comparator.comparingLong(SiteSchedule::getNextDueAt));
+    private final Map<Integer, SiteSchedule> schedules = new HashMap<>();
+
+    /**
+     * 장소별 호출 상태
+     */
+    private static final class SiteSchedule {
+        private final Integer siteId;
+        private long nextDueAt;
+        private long lastPolledAt;
+        private long intervalMs;
+        private double vehiclesPerSecond;
+
+        private SiteSchedule(Integer siteId, long nextDueAt, long intervalMs) {
+            this.siteId = siteId;
+            this.nextDueAt = nextDueAt;
+            this.intervalMs = intervalMs;
+        }
+
+        private long getNextDueAt() {
+            return nextDueAt;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 호출할 시간이 된 장소를 꺼낸다. 처음 보는 장소는 바로 호출하고, 목록에서 빠진 장소는 제거한다.
+     * 꺼낸 장소는 결과가 기록되지 않아도(실패) min-interval 뒤에 다시 호출되도록 미리 예약한다.
+     *
+     * @param siteIds 현재 장소 목록
+     * @param now     현재 시간(epoch millis)
+     * @return 호출할 장소 ID 목록
+     */
+    public synchronized List<Integer> dueSites(Collection<Integer> siteIds, long now) {
+        Set<Integer> current = new HashSet<>(siteIds);
+        if (schedules.keySet().retainAll(current)) {
+            dueQueue.removeIf(schedule -> !current.contains(schedule.siteId));
+        }
+        for (Integer siteId : current) {
+            if (!schedules.containsKey(siteId)) {
+                SiteSchedule schedule = new SiteSchedule(siteId, now, minIntervalMs);
+                schedules.put(siteId, schedule);
+                dueQueue.add(schedule);
+            }
+        }
+
+        List<Integer> due = new ArrayList<>();
+        while (!dueQueue.isEmpty() && dueQueue.peek().nextDueAt <= now) {
+            due.add(dueQueue.poll().siteId);
+        }
+        for (Integer siteId : due) {
+            SiteSchedule schedule = schedules.get(siteId);
+            schedule.nextDueAt = now + minIntervalMs;
+            dueQueue.add(schedule);
+        }
+        logger.info("Adaptive polling: {} of {} sites due, next due in {} ms", due.size(), schedules.size(),
+                dueQueue.isEmpty() ? 0 : Math.max(0L, dueQueue.peek().nextDueAt - now));
+        return due;
+    }
+
+    /**
+     * 장소 호출 결과를 기록하고 다음 호출 시간을 정한다.
+     *
+     * @param siteId   장소 ID
+     * @param vehicles 받은 차량 수
+     * @param backlog  limit 까지 받아서 더 받을 차량이 남아 있으면 true
+     * @param now      현재 시간(epoch millis)
+     */
+    public synchronized void record(Integer siteId, int vehicles, boolean backlog, long now) {
+        SiteSchedule schedule = schedules.get(siteId);
+        if (schedule == null) {
+            return;
+        }
+        if (schedule.lastPolledAt > 0 && now > schedule.lastPolledAt) {
+            double observed = vehicles * 1000.0 / (now - schedule.lastPolledAt);
+            schedule.vehiclesPerSecond = RATE_WEIGHT * observed + (1 - RATE_WEIGHT) * schedule.vehiclesPerSecond;
+        }
+        schedule.lastPolledAt = now;
+
+        long interval;
+        if (backlog) {
+            interval = minIntervalMs;
+        } else if (vehicles == 0 && !surveyWindowIndex.isActive(siteId, now, 0L)) {
+            interval = maxIntervalMs; // 조사 기간 밖이고 차량도 없음
+        } else if (vehicles == 0) {
+            interval = schedule.intervalMs * 2; // 지수적으로 늦춤
+        } else if (schedule.vehiclesPerSecond > 0) {
+            interval = (long) (targetVehicles / schedule.vehiclesPerSecond * 1000);
+        } else {
+            interval = minIntervalMs;
+        }
+        schedule.intervalMs = Math.max(minIntervalMs, Math.min(maxIntervalMs, interval));
+
+        dueQueue.remove(schedule);
+        schedule.nextDueAt = now + schedule.intervalMs;
+        dueQueue.add(schedule);
+        logger.debug("siteId {}: {} vehicles, {} veh/s, next poll in {} ms", siteId, vehicles,
+                String.format("%.3f", schedule.vehiclesPerSecond), schedule.intervalMs);
+    }
+}
@@ -0,0 +1,240 @@
+package org.neighbor21.slkaMobileEquipApi.service.fetch;
+
+import jakarta.annotation.PreDestroy;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+import org.neighbor21.slkaMobileEquipApi.service.MCATLYSTApiService;
+import org.neighbor21.slkaMobileEquipApi.service.codec.AtlystJsonCodec;
+import org.neighbor21.slkaMobileEquipApi.service.util.VehicleUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.fetch
+ * fileName       : CatchUpPager.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소에 limit 건보다 많은 차량이 밀려 있을 때 한 주기 안에서 여러 페이지를 이어서 조회하는 클래스.
+ * 응답 기록 수가 limit 보다 적거나 주기당 예산(페이지 수, 시간)을 다 쓸 때까지 마지막으로 받은 통과 시간부터 다음 페이지를 호출한다.
+ * 별도 스레드가 응답을 스트리밍으로 읽으면서 차량 묶음(chunk)을 작은 크기 제한 큐에 하나씩 넣고, 호출한 스레드는 받는 대로 저장한다.
+ * 큐가 차면 응답 읽기가 멈추므로 장소당 메모리에 남는 차량은 페이지 크기와 무관하게 묶음 몇 개뿐이며, 미리 받는 것은 다음 응답 하나뿐이다.
+ * 저장이나 두 번째 이후 페이지 조회가 실패하면 남은 페이지는 버리고 예외를 던진다(진행 위치는 커밋된 묶음까지만 올라가므로 재시도하면 이어서 조회).
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           페이지 전체 대신 차량 묶음 단위로 넘겨 저장, 다음 페이지 여부를 응답 기록 수로 판단
+ * 26. 10. 18.        kjg08           저장 실패와 두 번째 이후 페이지 조회 실패도 예외로 던져 장소 실패(재시도 대기열)로 처리
+ */
+@Component
+public class CatchUpPager {
+    private static final Logger logger = LoggerFactory.getLogger(CatchUpPager.class);
+
+    @Autowired
+    private MCATLYSTApiService mcAtlystApiService;
+
+    @Autowired
+    private VehicleUtils.LastVehiclePassTimeManager lastVehiclePassTimeManager;
+
+    // 장소 하나에 한 주기 동안 조회할 최대 페이지 수(1 이면 기존처럼 한 번만 호출)
+    @Value("${scheduler.vehicles.catch-up.max-pages:10}")
+    private int maxPages;
+
+    // 장소 하나에 한 주기 동안 페이지 조회에 쓸 최대 시간(ms), 장소 제한 시간(site-timeout-ms)보다 작게 설정
+    @Value("${scheduler.vehicles.catch-up.max-millis:120000}")
+    private long maxMillis;
+
+    // 저장을 기다리며 미리 읽어둘 최대 차량 묶음 수(큐가 차면 응답 읽기가 멈춤)
+    @Value("${scheduler.vehicles.catch-up.prefetch-chunks:2}")
+    private int prefetchChunks;
+
+    // 장소 작업 스레드 풀과 분리된 prefetch 전용 실행기(같은 풀을 쓰면 장소 작업이 prefetch 를 기다리며 풀을 모두 점유할 수 있음)
+    private final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "catch-up-prefetch-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // 장소별 마지막 주기의 밀린 정도
+    private final Map<Integer, SiteBacklog> backlogs = new ConcurrentHashMap<>();
+
+    /**
+     * 장소별 밀린 정도
+     *
+     * @param pages      이번 주기에 다 읽은 페이지 수
+     * @param vehicles   이번 주기에 저장한 차량 수
+     * @param caughtUp   마지막 페이지의 기록 수가 limit 보다 적었으면(더 받을 차량이 없으면) true
+     * @param lagSeconds 저장된 마지막 통과 시간이 현재 시간보다 늦은 정도(초)
+     */
+    public record SiteBacklog(int pages, int vehicles, boolean caughtUp, long lagSeconds) {
+    }
+
+    /**
+     * prefetch 스레드가 넘기는 항목. chunk 가 있으면 저장할 차량 묶음이고,
+     * 없으면 페이지 끝(pageEnd), 조회 끝(end, full 이면 남은 차량이 더 있을 수 있음), 조회 실패(error) 중 하나.
+     */
+    private record Item(VehiclePassChunk chunk, boolean pageEnd, boolean full, Throwable error) {
+        private static final Item PAGE_END = new Item(null, true, false, null);
+
+        private static Item of(VehiclePassChunk chunk) {
+            return new Item(chunk, false, false, null);
+        }
+
+        private static Item end(boolean full) {
+            return new Item(null, false, full, null);
+        }
+
+        private static Item failed(Throwable error) {
+            return new Item(null, false, false, error);
+        }
+    }
+
+    /**
+     * 장소의 진행 위치부터 페이지를 이어서 조회하고 chunk 단위로 저장한다.
+     *
+     * @param siteId    장소 ID
+     * @param chunkSize 한 번에 저장할 차량 수
+     * @param persist   차량 묶음을 저장하는 함수(성공하면 true)
+     * @return 저장한 차량 수
+     * @throws Exception 페이지 조회 또는 저장에 실패한 경우(재시도 대상, 앞에서 커밋된 묶음은 유지)
+     */
+    public int catchUp(Integer siteId, int chunkSize, Predicate<VehiclePassChunk> persist) throws Exception {
+        int limit = mcAtlystApiService.getIndividualVehiclesLimit();
+        BlockingQueue<Item> queue = new ArrayBlockingQueue<>(Math.max(1, prefetchChunks));
+        Timestamp startTime = lastVehiclePassTimeManager.getLastVehiclePassTime(siteId);
+        Future<?> producer = prefetchExecutor.submit(() -> fetchPages(siteId, startTime, chunkSize, limit, queue));
+
+        int pages = 0;
+        int saved = 0;
+        boolean caughtUp = false;
+        try {
+            while (true) {
+                Item item = queue.take();
+                if (item.chunk() != null) {
+                    if (!persist.test(item.chunk())) {
+                        throw new IllegalStateException(String.format("Catch-up for siteId %d stopped at page %d: insert failed", siteId, pages + 1));
+                    }
+                    saved += item.chunk().size();
+                } else if (item.pageEnd()) {
+                    pages++;
+                } else if (item.error() != null) {
+                    if (pages > 0) {
+                        logger.warn("Catch-up page {} for siteId {} failed after {} vehicles saved", pages + 1, siteId, saved);
+                    }
+                    throw item.error() instanceof Exception e ? e : new ExecutionException(item.error());
+                } else {
+                    caughtUp = !item.full();
+                    break;
+                }
+            }
+        } finally {
+            producer.cancel(true);
+            recordBacklog(siteId, pages, saved, caughtUp);
+        }
+        return saved;
+    }
+
+    /**
+     * 페이지를 차례로 조회하면서 차량 묶음을 큐에 넣는다(prefetch 스레드). 다음 페이지는 앞 페이지의 마지막 통과 시간부터 조회한다.
+     */
+    private void fetchPages(Integer siteId, Timestamp startTime, int chunkSize, int limit, BlockingQueue<Item> queue) {
+        long deadline = System.currentTimeMillis() + maxMillis;
+        Timestamp pageStart = startTime;
+        try {
+            for (int page = 0; page < Math.max(1, maxPages); page++) {
+                long[] lastPassTime = {pageStart.getTime()};
+                AtlystJsonCodec.ChunkReadResult result = mcAtlystApiService.streamIndividualVehiclePasses(siteId, pageStart, chunkSize, chunk -> {
+                    lastPassTime[0] = chunk.getLastPassTime();
+                    put(queue, Item.of(chunk));
+                });
+                // 통과 시간 등이 없어 건너뛴 기록도 limit 에 포함되므로 변환한 차량 수가 아닌 응답 기록 수로 판단
+                boolean full = result.records() >= limit;
+                queue.put(Item.PAGE_END);
+
+                // 같은 시간에 limit 건 이상 몰려 있으면 시작 시간이 그대로이므로 무한 반복을 막기 위해 멈춤
+                if (!full || lastPassTime[0] <= pageStart.getTime() || System.currentTimeMillis() >= deadline) {
+                    queue.put(Item.end(full));
+                    return;
+                }
+                pageStart = new Timestamp(lastPassTime[0]);
+            }
+            queue.put(Item.end(true)); // 페이지 예산 소진
+        } catch (InterruptedException | CancellationException e) {
+            Thread.currentThread().interrupt(); // 저장이 멈춰서 취소됨
+        } catch (Throwable t) {
+            try {
+                queue.put(Item.failed(t));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 응답을 읽는 중에 차량 묶음을 큐에 넣는다. 저장 쪽이 멈춰서 인터럽트되면 응답 읽기를 멈추도록 CancellationException 을 던진다.
+     */
+    private static void put(BlockingQueue<Item> queue, Item item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Catch-up cancelled");
+        }
+    }
+
+    /**
+     * 이번 주기의 밀린 정도를 기록한다. 실패한 경우도 커밋된 묶음까지의 진행 위치로 기록한다.
+     */
+    private void recordBacklog(Integer siteId, int pages, int saved, boolean caughtUp) {
+        Timestamp watermark = lastVehiclePassTimeManager.getLastVehiclePassTime(siteId);
+        long lagSeconds = Math.max(0L, (System.currentTimeMillis() - watermark.getTime()) / 1000);
+        backlogs.put(siteId, new SiteBacklog(pages, saved, caughtUp, lagSeconds));
+        if (pages > 1 || !caughtUp) {
+            logger.info("Catch-up siteId {}: {} pages, {} vehicles, caught up: {}, lag: {} s", siteId, pages, saved, caughtUp, lagSeconds);
+        }
+    }
+
+    /**
+     * 장소별 마지막 주기의 밀린 정도
+     *
+     * @return 장소 ID 별 밀린 정도
+     */
+    public Map<Integer, SiteBacklog> getBacklogs() {
+        return Collections.unmodifiableMap(backlogs);
+    }
+
+    /**
+     * 아직 따라잡지 못한 장소를 로그로 출력한다.
+     */
+    public void logBacklog() {
+        List<String> behind = backlogs.entrySet().stream()
+                .filter(entry -> !entry.getValue().caughtUp())
+                .sorted(Comparator.comparingLong((Map.Entry<Integer, SiteBacklog> entry) -> entry.getValue().lagSeconds()).reversed())
+                .map(entry -> entry.getKey() + "(" + entry.getValue().lagSeconds() + " s)")
+                .collect(Collectors.toList());
+        if (behind.isEmpty()) {
+            logger.info("Catch-up backlog: all {} sites caught up", backlogs.size());
+        } else {
+            logger.info("Catch-up backlog: {} of {} sites still behind: {}", behind.size(), backlogs.size(), String.join(", ", behind));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,193 @@
+package org.neighbor21.slkaMobileEquipApi.service.fetch;
+
+import org.neighbor21.slkaMobileEquipApi.service.util.ConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.fetch
+ * fileName       : SiteFetchExecutor.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 여러 장소(site)의 API 호출을 동시에 수행하는 실행기.
+ * 동시에 진행중인(in-flight) 요청 수는 ConcurrencyLimiter 의 세마포어로 제한하고, 장소별 제한 시간(deadline)을 적용하며,
+ * 장소 하나가 끝날 때마다 결과를 호출한 스레드로 바로 넘겨서 저장 단계가 순차적으로 이어지도록 한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           제한 시간을 넘긴 장소는 인터럽트한 뒤 작업이 실제로 끝나고 나서 결과를 전달(끝나기 전에는 실패로 보고하지 않음)
+ */
+@Component
+public class SiteFetchExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(SiteFetchExecutor.class);
+
+    @Autowired
+    private ExecutorService executorService;
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    // 장소 하나에 허용하는 최대 처리 시간(ms). API 호출 권한을 얻어 실제로 시작된 시점부터 계산한다.
+    // 넘기면 작업 스레드를 인터럽트하고, 소켓 읽기처럼 인터럽트에 반응하지 않는 구간은 HTTP socket timeout 또는 다음 chunk 경계에서 멈춘다.
+    @Value("${scheduler.vehicles.parallel.site-timeout-ms:180000}")
+    private long siteTimeoutMs;
+
+    /**
+     * 장소 하나에 대한 호출 작업
+     *
+     * @param <T> 호출 결과 타입
+     */
+    @FunctionalInterface
+    public interface SiteTask<T> {
+        T call(Integer siteId) throws Throwable;
+    }
+
+    /**
+     * 장소별 결과/실패를 전달받는 콜백. 항상 fetchAll 을 호출한 스레드에서 실행된다.
+     *
+     * @param <T> 호출 결과 타입
+     */
+    public interface SiteResultHandler<T> {
+        void onSuccess(Integer siteId, T result);
+
+        void onFailure(Integer siteId, Throwable cause);
+    }
+
+    /**
+     * 진행중인 작업 정보. startedAt 은 작업 스레드가 API 호출 권한을 얻은 뒤 기록되고,
+     * result/failure 는 작업 스레드가 권한을 반납한 뒤 완료 큐에 넣기 전에 기록된다.
+     */
+    private static final class InFlight<T> {
+        private final Integer siteId;
+        private volatile long startedAt = 0L;
+        private Future<?> future;
+        private boolean expired = false; // 제한 시간을 넘겨 인터럽트함(호출 스레드에서만 사용)
+        private T result;
+        private Throwable failure;
+
+        private InFlight(Integer siteId) {
+            this.siteId = siteId;
+        }
+    }
+
+    /**
+     * 장소 목록을 동시에 호출하고, 완료되는 순서대로 handler 에 결과를 전달한다.
+     * 실행기에는 submissionWindow 만큼 제출하고(가상 스레드 모드는 전체), 실제 호출 수는 세마포어로 제한한다.
+     * 제한 시간을 넘긴 장소도 작업이 끝나서 API 호출 권한을 반납한 뒤에 결과를 전달하므로, 실패로 보고된 장소가 그 뒤에 저장하거나 진행 위치를 올리지 않는다.
+     *
+     * @param siteIds 호출할 장소 ID 목록
+     * @param task    장소별 호출 작업
+     * @param handler 결과 처리 콜백
+     * @param <T>     호출 결과 타입
+     * @return 성공한 장소 수
+     */
+    public <T> int fetchAll(List<Integer> siteIds, SiteTask<T> task, SiteResultHandler<T> handler) {
+        BlockingQueue<InFlight<T>> completed = new LinkedBlockingQueue<>();
+        Set<InFlight<T>> inFlight = new HashSet<>();
+        Iterator<Integer> pending = siteIds.iterator();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(siteTimeoutMs);
+        int window = concurrencyLimiter.getSubmissionWindow();
+        int succeeded = 0;
+
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                // 동시 진행 개수만큼 작업 채우기(시간 초과로 인터럽트한 작업도 끝날 때까지 자리를 차지함)
+                while (pending.hasNext() && inFlight.size() < window) {
+                    inFlight.add(submit(completed, pending.next(), task));
+                }
+
+                InFlight<T> done = completed.poll(nextWaitNanos(inFlight, timeoutNanos), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    expireOverdue(inFlight, timeoutNanos);
+                    continue;
+                }
+
+                inFlight.remove(done);
+                if (done.failure == null) {
+                    if (done.expired) {
+                        logger.warn("Site {} finished after exceeding {} ms, keeping its result", done.siteId, siteTimeoutMs);
+                    }
+                    handler.onSuccess(done.siteId, done.result);
+                    succeeded++;
+                } else if (done.expired) {
+                    TimeoutException timeout = new TimeoutException("site " + done.siteId + " exceeded " + siteTimeoutMs + " ms");
+                    timeout.initCause(done.failure);
+                    handler.onFailure(done.siteId, timeout);
+                } else {
+                    handler.onFailure(done.siteId, done.failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Parallel site fetch interrupted, cancelling {} in-flight sites", inFlight.size());
+            inFlight.forEach(entry -> entry.future.cancel(true));
+        }
+        return succeeded;
+    }
+
+    /**
+     * 작업을 실행기에 제출한다. 작업은 API 호출 권한을 반납한 뒤 자신을 완료 큐에 넣는다.
+     */
+    private <T> InFlight<T> submit(BlockingQueue<InFlight<T>> completed, Integer siteId, SiteTask<T> task) {
+        InFlight<T> entry = new InFlight<>(siteId);
+        entry.future = executorService.submit(() -> {
+            try {
+                concurrencyLimiter.acquireApiPermit();
+            } catch (InterruptedException e) {
+                entry.failure = e;
+                completed.add(entry);
+                return;
+            }
+            entry.startedAt = System.nanoTime();
+            try {
+                entry.result = task.call(siteId);
+            } catch (Throwable t) {
+                entry.failure = t;
+            } finally {
+                concurrencyLimiter.releaseApiPermit();
+                completed.add(entry);
+            }
+        });
+        return entry;
+    }
+
+    /**
+     * 가장 먼저 만료되는 작업까지 남은 시간을 계산한다. 아직 시작하지 않았거나 이미 인터럽트한 작업만 있으면 제한 시간 전체를 기다린다.
+     */
+    private long nextWaitNanos(Set<? extends InFlight<?>> inFlight, long timeoutNanos) {
+        long now = System.nanoTime();
+        long wait = timeoutNanos;
+        for (InFlight<?> entry : inFlight) {
+            long startedAt = entry.startedAt;
+            if (startedAt != 0L && !entry.expired) {
+                wait = Math.min(wait, startedAt + timeoutNanos - now);
+            }
+        }
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * 제한 시간을 넘긴 작업을 인터럽트한다. 실패는 작업이 실제로 끝난 뒤 fetchAll 에서 전달한다.
+     */
+    private void expireOverdue(Set<? extends InFlight<?>> inFlight, long timeoutNanos) {
+        long now = System.nanoTime();
+        for (InFlight<?> entry : inFlight) {
+            long startedAt = entry.startedAt;
+            if (startedAt != 0L && !entry.expired && now - startedAt >= timeoutNanos) {
+                entry.expired = true;
+                entry.future.cancel(true);
+                logger.warn("Site {} exceeded {} ms, interrupted and waiting for it to stop", entry.siteId, siteTimeoutMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.neighbor21.slkaMobileEquipApi.service.fetch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.fetch
+ * fileName       : SiteRetryQueue.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 재시도(apiRetry) 후에도 개별 차량 호출/저장에 실패한 장소를 모아 두는 재시도 대기열(dead-letter queue).
+ * 대기열에 들어간 장소는 일반 호출 목록에서 빠지고, 장소별 지수 백오프(+ 지터) 대기 시간이 지나면 주기 끝의 재시도 단계에서 다시 호출된다.
+ * 다시 실패하면 대기 시간을 늘려 다음 주기 이후로 미루고, 성공하면 대기열에서 빠져 일반 호출 목록으로 돌아간다.
+ * 실패한 장소 하나가 배치 전체를 멈추거나 정상 장소의 호출을 늦추지 않도록 한다. 대기열은 메모리에만 있으므로 재시작하면 비워진다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class SiteRetryQueue {
+    private static final Logger logger = LoggerFactory.getLogger(SiteRetryQueue.class);
+
+    @Value("${scheduler.vehicles.site-retry.enabled:true}")
+    private boolean enabled;
+
+    // 첫 실패 후 다시 호출할 때까지 기다릴 시간(ms)
+    @Value("${scheduler.vehicles.site-retry.initial-backoff-ms:10000}")
+    private long initialBackoffMs;
+
+    // 실패할 때마다 대기 시간에 곱할 배수
+    @Value("${scheduler.vehicles.site-retry.multiplier:2.0}")
+    private double multiplier;
+
+    // 가장 긴 대기 시간(ms)
+    @Value("${scheduler.vehicles.site-retry.max-backoff-ms:1800000}")
+    private long maxBackoffMs;
+
+    // 대기 시간을 ± 이 비율만큼 무작위로 흔들어서 실패한 장소들이 같은 시각에 몰리지 않도록 한다
+    @Value("${scheduler.vehicles.site-retry.randomization-factor:0.2}")
+    private double randomizationFactor;
+
+    private final PriorityQueue<FailedSite> dueQueue = new PriorityQueue<>(Comparator.comparingLong(FailedSite::getNextAttemptAt));
+    private final Map<Integer, FailedSite> failedSites = new HashMap<>();
+    private long enqueued;
+    private long recovered;
+
+    /**
+     * 실패한 장소의 재시도 상태
+     */
+    private static final class FailedSite {
+        private final Integer siteId;
+        private final long firstFailedAt;
+        private int failures;
+        private long nextAttemptAt;
+        private String lastError;
+
+        private FailedSite(Integer siteId, long firstFailedAt) {
+            this.siteId = siteId;
+            this.firstFailedAt = firstFailedAt;
+        }
+
+        private long getNextAttemptAt() {
+            return nextAttemptAt;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 대기열에 있는 장소를 뺀 호출 목록. 목록에서 빠진 장소(장소 캐시에 없는 장소)는 대기열에서도 제거한다.
+     *
+     * @param siteIds 호출할 장소 ID 목록
+     * @param current 현재 장소 캐시
+     * @return 대기열에 없는 장소 ID 목록
+     */
+    public synchronized List<Integer> withoutQueued(List<Integer> siteIds, Collection<Integer> current) {
+        if (failedSites.keySet().retainAll(new HashSet<>(current))) {
+            dueQueue.removeIf(failedSite -> !failedSites.containsKey(failedSite.siteId));
+        }
+        if (failedSites.isEmpty()) {
+            return siteIds;
+        }
+        List<Integer> remaining = new ArrayList<>(siteIds.size());
+        for (Integer siteId : siteIds) {
+            if (!failedSites.containsKey(siteId)) {
+                remaining.add(siteId);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 대기 시간이 지난 장소를 꺼낸다. 꺼낸 장소는 결과가 기록되기 전까지 현재 대기 시간만큼 뒤로 미뤄 둔다.
+     *
+     * @param now 현재 시간(epoch millis)
+     * @return 다시 호출할 장소 ID 목록
+     */
+    public synchronized List<Integer> dueSites(long now) {
+        List<FailedSite> due = new ArrayList<>();
+        while (!dueQueue.isEmpty() && dueQueue.peek().nextAttemptAt <= now) {
+            due.add(dueQueue.poll());
+        }
+        List<Integer> siteIds = new ArrayList<>(due.size());
+        for (FailedSite failedSite : due) {
+            failedSite.nextAttemptAt = now + backoff(failedSite.failures);
+            dueQueue.add(failedSite);
+            siteIds.add(failedSite.siteId);
+        }
+        return siteIds;
+    }
+
+    /**
+     * 장소 실패를 기록하고 다음 재시도 시간을 정한다.
+     *
+     * @param siteId 장소 ID
+     * @param cause  실패 원인
+     * @param now    현재 시간(epoch millis)
+     */
+    public synchronized void recordFailure(Integer siteId, Throwable cause, long now) {
+        if (!enabled) {
+            return;
+        }
+        FailedSite failedSite = failedSites.get(siteId);
+        if (failedSite == null) {
+            failedSite = new FailedSite(siteId, now);
+            failedSites.put(siteId, failedSite);
+            enqueued++;
+        } else {
+            dueQueue.remove(failedSite);
+        }
+        failedSite.failures++;
+        failedSite.lastError = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        long backoff = backoff(failedSite.failures);
+        failedSite.nextAttemptAt = now + backoff;
+        dueQueue.add(failedSite);
+        logger.warn("siteId {} failed {} time(s), retrying in {} ms ({} sites queued)", siteId, failedSite.failures, backoff, failedSites.size());
+    }
+
+    /**
+     * 장소 성공을 기록한다. 대기열에 있던 장소면 제거해서 일반 호출 목록으로 돌려보낸다.
+     *
+     * @param siteId 장소 ID
+     * @param now    현재 시간(epoch millis)
+     */
+    public synchronized void recordSuccess(Integer siteId, long now) {
+        if (failedSites.isEmpty()) {
+            return;
+        }
+        FailedSite failedSite = failedSites.remove(siteId);
+        if (failedSite != null) {
+            dueQueue.remove(failedSite);
+            recovered++;
+            logger.info("siteId {} recovered after {} failure(s), {} ms since first failure", siteId, failedSite.failures, now - failedSite.firstFailedAt);
+        }
+    }
+
+    /**
+     * 대기열에 있는 장소 수
+     *
+     * @return 대기열 깊이
+     */
+    public synchronized int getDepth() {
+        return failedSites.size();
+    }
+
+    /**
+     * 대기열에 있는 장소별 연속 실패 횟수
+     *
+     * @return 장소 ID -> 연속 실패 횟수
+     */
+    public synchronized Map<Integer, Integer> getFailures() {
+        Map<Integer, Integer> failures = new TreeMap<>();
+        failedSites.forEach((siteId, failedSite) -> failures.put(siteId, failedSite.failures));
+        return failures;
+    }
+
+    /**
+     * 대기열 깊이, 누적 등록/복구 건수, 가장 오래 실패 중인 장소를 로그로 남긴다.
+     *
+     * @param now 현재 시간(epoch millis)
+     */
+    public synchronized void logStats(long now) {
+        if (failedSites.isEmpty()) {
+            logger.info("Site retry queue: empty ({} enqueued, {} recovered in total)", enqueued, recovered);
+            return;
+        }
+        FailedSite oldest = Collections.min(failedSites.values(), Comparator.comparingLong(failedSite -> failedSite.firstFailedAt));
+        logger.info("Site retry queue: {} sites queued, next retry in {} ms ({} enqueued, {} recovered in total)",
+                failedSites.size(), Math.max(0L, dueQueue.peek().nextAttemptAt - now), enqueued, recovered);
+        logger.info("Site retry queue: oldest siteId {} failing for {} ms, {} failure(s), last error {}",
+                oldest.siteId, now - oldest.firstFailedAt, oldest.failures, oldest.lastError);
+    }
+
+    // 연속 실패 횟수에 따른 대기 시간(지수 백오프 + 지터, max-backoff 이하)
+    private long backoff(int failures) {
+        double backoff = Math.min(maxBackoffMs, initialBackoffMs * Math.pow(multiplier, Math.max(0, failures - 1)));
+        double jitter = 1 + randomizationFactor * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0L, Math.min(maxBackoffMs, (long) (backoff * jitter)));
+    }
+}
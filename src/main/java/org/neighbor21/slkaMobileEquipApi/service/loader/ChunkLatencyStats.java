@@ -0,0 +1,65 @@
+package org.neighbor21.slkaMobileEquipApi.service.loader;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.loader
+ * fileName       : ChunkLatencyStats.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 배치 삽입 커밋 단위(chunk)별 처리 시간 통계. 여러 스레드에서 동시에 누적한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class ChunkLatencyStats {
+    private final String name;
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public ChunkLatencyStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 커밋된 chunk 하나를 기록한다.
+     *
+     * @param rowCount     chunk 의 행 수
+     * @param elapsedNanos 실행부터 커밋까지 걸린 시간
+     */
+    public void record(int rowCount, long elapsedNanos) {
+        chunks.increment();
+        rows.add(rowCount);
+        nanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+    }
+
+    public long getChunks() {
+        return chunks.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+    }
+
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        long chunkCount = getChunks();
+        double avgMillis = chunkCount == 0 ? 0.0 : nanos.sum() / 1_000_000.0 / chunkCount;
+        return String.format("%s: chunks=%d, rows=%d, total=%d ms, avg=%.3f ms/chunk, max=%d ms",
+                name, chunkCount, getRows(), getTotalMillis(), avgMillis, getMaxMillis());
+    }
+}
@@ -0,0 +1,92 @@
+package org.neighbor21.slkaMobileEquipApi.service.loader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.loader
+ * fileName       : MultiRowInsertSql.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : INSERT ... VALUES (...),(...),... ON CONFLICT ... 형태의 여러 행 INSERT 문을 만드는 클래스.
+ * 한 문장의 바인드 파라미터 수가 PostgreSQL 프로토콜 한도(32767)를 넘지 않도록 행 수를 제한하고,
+ * 행 수(문장 모양)별 SQL 문자열을 캐시해서 같은 모양의 문장이 커넥션의 서버 측 prepared statement 를 재사용하도록 한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class MultiRowInsertSql {
+    // PostgreSQL 확장 쿼리 프로토콜의 바인드 파라미터 최대 개수
+    public static final int MAX_BIND_PARAMETERS = 32767;
+    // 캐시할 문장 모양(행 수)의 최대 개수. 나머지 행 수처럼 가끔 쓰이는 모양은 매번 만든다.
+    private static final int MAX_CACHED_SHAPES = 16;
+
+    private final String prefix;
+    private final String suffix;
+    private final int columnCount;
+    private final String rowPlaceholder;
+    private final Map<Integer, String> sqlCache = new ConcurrentHashMap<>();
+
+    /**
+     * MultiRowInsertSql 생성자.
+     *
+     * @param insertInto  "INSERT INTO 테이블 (컬럼, ...)" 부분
+     * @param columnCount 컬럼 수(행당 바인드 파라미터 수)
+     * @param suffix      VALUES 뒤에 붙는 부분(ON CONFLICT ...), 없으면 빈 문자열
+     */
+    public MultiRowInsertSql(String insertInto, int columnCount, String suffix) {
+        this.prefix = insertInto + " VALUES ";
+        this.suffix = suffix.isEmpty() ? "" : " " + suffix;
+        this.columnCount = columnCount;
+        StringBuilder placeholder = new StringBuilder(columnCount * 3 + 2).append('(');
+        for (int i = 0; i < columnCount; i++) {
+            placeholder.append(i == 0 ? "?" : ", ?");
+        }
+        this.rowPlaceholder = placeholder.append(')').toString();
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * 요청한 문장당 행 수를 1 이상, 바인드 파라미터 한도 이하로 보정한다.
+     *
+     * @param requestedRows 설정된 문장당 행 수
+     * @return 보정된 행 수
+     */
+    public int clampRows(int requestedRows) {
+        return Math.max(1, Math.min(requestedRows, MAX_BIND_PARAMETERS / columnCount));
+    }
+
+    /**
+     * rows 개 행을 넣는 INSERT 문을 반환한다.
+     *
+     * @param rows 행 수
+     * @return SQL 문
+     */
+    public String sql(int rows) {
+        String cached = sqlCache.get(rows);
+        if (cached != null) {
+            return cached;
+        }
+        String sql = build(rows);
+        if (sqlCache.size() < MAX_CACHED_SHAPES) {
+            sqlCache.putIfAbsent(rows, sql);
+        }
+        return sql;
+    }
+
+    private String build(int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + suffix.length() + rows * (rowPlaceholder.length() + 2));
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholder);
+        }
+        return sql.append(suffix).toString();
+    }
+}
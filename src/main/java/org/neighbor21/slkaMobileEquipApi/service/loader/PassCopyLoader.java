@@ -0,0 +1,237 @@
+package org.neighbor21.slkaMobileEquipApi.service.loader;
+
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_PASSEntity;
+import org.neighbor21.slkaMobileEquipApi.entity.compositeKey.TL_MVMNEQ_PASS_IdEntity;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.loader
+ * fileName       : PassCopyLoader.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : PostgreSQL COPY 로 tl_mvmneq_pass 를 적재하는 클래스.
+ * 행을 CSV 로 세션 임시 테이블(WAL 을 쓰지 않음)에 COPY 한 뒤, INSERT ... SELECT ... ON CONFLICT DO NOTHING 한 번으로 본 테이블에 합친다.
+ * 트랜잭션(커밋/롤백)은 호출하는 쪽에서 관리하며, 임시 테이블은 커밋 시 비워진다(ON COMMIT DELETE ROWS).
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class PassCopyLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PassCopyLoader.class);
+
+    private static final String STAGE_TABLE = "tmp_mvmneq_pass_stage";
+    private static final String COLUMNS = "pass_dt, vhcl_drct, pass_lane, instllc_id, vhcl_speed, vhcl_len, vhcl_intv_ss, vhcl_clsf, clct_dt";
+
+    // 커넥션 풀의 커넥션(세션)마다 한 번 만들어지고 이후 재사용된다
+    private static final String CREATE_STAGE_SQL = "CREATE TEMP TABLE IF NOT EXISTS " + STAGE_TABLE + " (" +
+            "pass_dt timestamp, vhcl_drct varchar(30), pass_lane integer, instllc_id varchar(30), " +
+            "vhcl_speed numeric(5, 2), vhcl_len numeric(9, 2), vhcl_intv_ss integer, vhcl_clsf varchar(30), clct_dt timestamp" +
+            ") ON COMMIT DELETE ROWS";
+    private static final String COPY_SQL = "COPY " + STAGE_TABLE + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE_SQL = "INSERT INTO srlk.tl_mvmneq_pass (" + COLUMNS + ") " +
+            "SELECT " + COLUMNS + " FROM " + STAGE_TABLE + " " +
+            "ON CONFLICT (pass_dt, vhcl_drct, pass_lane, instllc_id) DO NOTHING";
+
+    // COPY 스트림 버퍼 크기(byte)
+    @Value("${batch.pass.copy.buffer-size:65536}")
+    private int bufferSize;
+
+    /**
+     * 한 행씩 CSV 로 쓰는 함수
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        int writeRows(CsvRow row) throws IOException;
+    }
+
+    /**
+     * VehiclePassChunk 를 적재한다.
+     *
+     * @param connection 자동 커밋이 꺼진 커넥션
+     * @param chunk      차량 묶음(vehicle interval 계산 완료)
+     * @return 새로 추가된 행 수(중복 제외)
+     * @throws SQLException COPY 또는 병합 실패 시
+     */
+    public int load(Connection connection, VehiclePassChunk chunk) throws SQLException {
+        String instllcId = chunk.getInstllcId();
+        return copyAndMerge(connection, row -> {
+            long collectionDatetime = System.currentTimeMillis();
+            for (int i = 0; i < chunk.size(); i++) {
+                row.timestamp(chunk.getPassTime(i))
+                        .text(chunk.getHeading(i))
+                        .integer(chunk.getLaneIndex(i))
+                        .text(instllcId)
+                        .scaled(chunk.getSpeedScaled(i))
+                        .scaled(chunk.getLengthScaled(i))
+                        .integer(chunk.getIntervalSeconds(i))
+                        .text(chunk.getVehicleClass(i))
+                        .timestamp(collectionDatetime)
+                        .end();
+            }
+            return chunk.size();
+        });
+    }
+
+    /**
+     * TL_MVMNEQ_PASSEntity 목록을 적재한다.
+     *
+     * @param connection   자동 커밋이 꺼진 커넥션
+     * @param passEntities 삽입할 엔티티 리스트
+     * @return 새로 추가된 행 수(중복 제외)
+     * @throws SQLException COPY 또는 병합 실패 시
+     */
+    public int load(Connection connection, List<TL_MVMNEQ_PASSEntity> passEntities) throws SQLException {
+        return copyAndMerge(connection, row -> {
+            for (TL_MVMNEQ_PASSEntity entity : passEntities) {
+                TL_MVMNEQ_PASS_IdEntity id = entity.getId();
+                row.timestamp(id.getPassTime())
+                        .text(id.getVehicleDirection())
+                        .integer(id.getPassLane())
+                        .text(id.getInstllcId())
+                        .decimal(entity.getVehicleSpeed())
+                        .decimal(entity.getVehicleLength())
+                        .integer(entity.getVehicleIntervalSeconds())
+                        .text(entity.getVehicleClass())
+                        .timestamp(entity.getCollectionDatetime())
+                        .end();
+            }
+            return passEntities.size();
+        });
+    }
+
+    /**
+     * 임시 테이블에 COPY 한 뒤 본 테이블에 병합한다.
+     */
+    private int copyAndMerge(Connection connection, RowWriter rowWriter) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGE_SQL);
+        }
+
+        int copied;
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, COPY_SQL, bufferSize);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), bufferSize)) {
+            copied = rowWriter.writeRows(new CsvRow(writer));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + STAGE_TABLE + " failed", e);
+        }
+        long copyTime = System.currentTimeMillis();
+
+        int merged;
+        try (Statement statement = connection.createStatement()) {
+            merged = statement.executeUpdate(MERGE_SQL);
+        }
+        long endTime = System.currentTimeMillis();
+        logger.debug("COPY {} rows in {} ms, merged {} new rows in {} ms", copied, copyTime - startTime, merged, endTime - copyTime);
+        return merged;
+    }
+
+    /**
+     * tl_mvmneq_pass 한 행을 PostgreSQL CSV 형식으로 쓰는 클래스. 빈 필드(따옴표 없음)는 NULL 이다.
+     * 시간은 pgjdbc setTimestamp 와 같이 JVM 기본 시간대의 timestamp 문자열로 쓴다.
+     */
+    private static final class CsvRow {
+        private final Writer writer;
+        private final Timestamp timestamp = new Timestamp(0L);
+        private boolean first = true;
+
+        private CsvRow(Writer writer) {
+            this.writer = writer;
+        }
+
+        private void separator() throws IOException {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+        }
+
+        CsvRow timestamp(long millis) throws IOException {
+            separator();
+            timestamp.setTime(millis);
+            writer.write(timestamp.toString());
+            return this;
+        }
+
+        CsvRow timestamp(Timestamp value) throws IOException {
+            if (value == null) {
+                separator();
+                return this;
+            }
+            return timestamp(value.getTime());
+        }
+
+        CsvRow integer(int value) throws IOException {
+            separator();
+            writer.write(Integer.toString(value));
+            return this;
+        }
+
+        CsvRow scaled(int scaled) throws IOException {
+            separator();
+            if (scaled != VehiclePassChunk.NULL_SCALED) {
+                writer.write(VehiclePassChunk.toDecimal(scaled).toPlainString());
+            }
+            return this;
+        }
+
+        CsvRow decimal(BigDecimal value) throws IOException {
+            separator();
+            if (value != null) {
+                writer.write(value.toPlainString());
+            }
+            return this;
+        }
+
+        CsvRow text(String value) throws IOException {
+            separator();
+            if (value == null) {
+                return this;
+            }
+            if (value.isEmpty() || needsQuote(value)) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+            return this;
+        }
+
+        void end() throws IOException {
+            writer.write('\n');
+            first = true;
+        }
+
+        private static boolean needsQuote(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r' || c == '\\') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
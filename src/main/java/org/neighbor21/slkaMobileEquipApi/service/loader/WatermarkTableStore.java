@@ -0,0 +1,93 @@
+package org.neighbor21.slkaMobileEquipApi.service.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.loader
+ * fileName       : WatermarkTableStore.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : tl_mvmneq_watermark 테이블 읽기/쓰기.
+ * tl_mvmneq_pass 를 삽입한 커넥션에서 커밋 전에 upsert 하므로 통과 차량 데이터와 진행 위치가 함께 커밋되거나 함께 롤백된다.
+ * 값은 GREATEST 로만 올라가므로 늦게 끝난 재시도가 진행 위치를 되돌리지 않는다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class WatermarkTableStore {
+    private static final Logger logger = LoggerFactory.getLogger(WatermarkTableStore.class);
+    private static final String UPSERT_SQL =
+            "INSERT INTO srlk.tl_mvmneq_watermark (instllc_id, last_pass_dt, updt_dt) VALUES (?, ?, now()) " +
+                    "ON CONFLICT (instllc_id) DO UPDATE SET last_pass_dt = GREATEST(srlk.tl_mvmneq_watermark.last_pass_dt, EXCLUDED.last_pass_dt), " +
+                    "updt_dt = EXCLUDED.updt_dt";
+    private static final String SELECT_SQL = "SELECT instllc_id, last_pass_dt FROM srlk.tl_mvmneq_watermark";
+
+    @Autowired
+    private DataSource dataSource;
+
+    // 진행 위치 저장소: db(tl_mvmneq_watermark, 삽입과 같은 트랜잭션) | file(WatermarkFileStore)
+    @Value("${watermark.store:db}")
+    private String store;
+
+    /**
+     * tl_mvmneq_watermark 를 사용하는지 여부
+     */
+    public boolean isEnabled() {
+        return "db".equalsIgnoreCase(store);
+    }
+
+    /**
+     * 설치위치별 마지막 통과 시간을 upsert 한다. 커밋은 호출하는 쪽에서 한다.
+     *
+     * @param connection     tl_mvmneq_pass 를 삽입한 커넥션(자동 커밋 꺼짐)
+     * @param lastPassMillis 설치위치 ID 별 마지막 통과 시간(epoch millis)
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public void upsert(Connection connection, Map<String, Long> lastPassMillis) throws SQLException {
+        if (lastPassMillis.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<String, Long> entry : lastPassMillis.entrySet()) {
+                statement.setString(1, entry.getKey());
+                statement.setTimestamp(2, new Timestamp(entry.getValue()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * 저장된 진행 위치 전체를 한 번의 쿼리로 읽는다.
+     *
+     * @return 설치위치 ID 별 마지막 통과 시간
+     * @throws SQLException SQL 예외 발생 시
+     */
+    public Map<Integer, Timestamp> loadAll() throws SQLException {
+        Map<Integer, Timestamp> watermarks = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                String instllcId = resultSet.getString("instllc_id");
+                try {
+                    watermarks.put(Integer.valueOf(instllcId), resultSet.getTimestamp("last_pass_dt"));
+                } catch (NumberFormatException e) {
+                    logger.warn("Skipping watermark row with non-numeric instllc_id {}", instllcId);
+                }
+            }
+        }
+        return watermarks;
+    }
+}
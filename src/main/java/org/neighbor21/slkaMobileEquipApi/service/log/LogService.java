@@ -1,6 +1,6 @@
 package org.neighbor21.slkaMobileEquipApi.service.log;
 
-import kong.unirest.HttpResponse;
+import kong.unirest.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +17,7 @@ import java.util.Optional;
  * -----------------------------------------------------------
  * 24. 4. 19.        kjg08           최초 생성
  * 24. 5. 17.        kjg08            주석 추가 및 description 갱신
+ * 26. 10. 18.        kjg08            응답 객체 대신 응답 헤더(Headers)를 받도록 변경(AtlystTransport 응답 스트리밍)
  */
 public class LogService {
 
@@ -25,31 +26,31 @@ public class LogService {
     /**
      * 공통 응답 헤더 정보를 로그로 기록하고, HeaderInfo 객체를 반환한다.
      *
-     * @param response HttpResponse 객체
+     * @param headers 응답 헤더
      * @return HeaderInfo 객체
      */
-    public HeaderInfo commonResponseHeaders(HttpResponse<String> response) {
+    public HeaderInfo commonResponseHeaders(Headers headers) {
         HeaderInfo info = new HeaderInfo();
         try {
             // 응답 데이터 형식
-            info.setContentType(getHeader(response, "Content-Type", "Unknown Content-Type"));
+            info.setContentType(getHeader(headers, "Content-Type", "Unknown Content-Type"));
             // 응답 본문의 길이
-            info.setContentLength(getHeader(response, "Content-Length", "Unknown Content-Length"));
+            info.setContentLength(getHeader(headers, "Content-Length", "Unknown Content-Length"));
             // 연결 상태
-            info.setConnection(getHeader(response, "Connection", "Unknown Connection"));
+            info.setConnection(getHeader(headers, "Connection", "Unknown Connection"));
             // 응답이 생성된 정확한 시간
-            info.setDate(getHeader(response, "Date", "Unknown Date"));
+            info.setDate(getHeader(headers, "Date", "Unknown Date"));
 
             // Amazon Web Services에서 생성한 특정 요청 ID로, 요청을 추적하고 문제를 진단하는 데 사용될 수 있습니다.
-            info.setXAmznTraceId(getHeader(response, "X-Amzn-Trace-Id", "No AWS Request ID"));
+            info.setXAmznTraceId(getHeader(headers, "X-Amzn-Trace-Id", "No AWS Request ID"));
             // 예: Miss from cloudfront: CloudFront 캐시에서 응답이 캐시 미스임을 나타내고, 오리진 서버에서 직접 응답이 제공되었음을 알려줍니다.
-            info.setXCache(getHeader(response, "X-Cache", "Unknown Cache Status"));
+            info.setXCache(getHeader(headers, "X-Cache", "Unknown Cache Status"));
             // 예: 1.1 52e479c500405e4e5b36d8a25429d06c.cloudfront.net (CloudFront): 응답이 Amazon CloudFront를 통해 전송되었음을 나타냅니다.
-            info.setVia(getHeader(response, "Via", "Unknown Via"));
+            info.setVia(getHeader(headers, "Via", "Unknown Via"));
             // CloudFront의 Point of Presence(POP) 위치를 나타냅니다.
-            info.setXAmzCfPop(getHeader(response, "X-Amz-Cf-Pop", "Unknown CloudFront POP"));
+            info.setXAmzCfPop(getHeader(headers, "X-Amz-Cf-Pop", "Unknown CloudFront POP"));
             // CloudFront 요청 ID로, 요청을 CloudFront 내에서 추적하는 데 사용됩니다.
-            info.setXAmzCfId(getHeader(response, "X-Amz-Cf-Id", "Unknown CloudFront ID"));
+            info.setXAmzCfId(getHeader(headers, "X-Amz-Cf-Id", "Unknown CloudFront ID"));
 
             // info 로그 출력
             logger.debug("data type : {}, body length : {}, connection type : {}, The time the response was generated : {}",
@@ -63,24 +64,24 @@ public class LogService {
     }
 
     /**
-     * HttpResponse 객체에서 특정 헤더 값을 가져오는 메서드.
+     * 응답 헤더에서 특정 헤더 값을 가져오는 메서드.
      *
-     * @param response     HttpResponse 객체
+     * @param headers      응답 헤더
      * @param headerName   헤더 이름
      * @param defaultValue 기본값
      * @return 헤더 값
      */
-    private String getHeader(HttpResponse<String> response, String headerName, String defaultValue) {
-        return Optional.ofNullable(response.getHeaders().getFirst(headerName)).orElse(defaultValue);
+    private String getHeader(Headers headers, String headerName, String defaultValue) {
+        return Optional.ofNullable(headers.getFirst(headerName)).orElse(defaultValue);
     }
 
     /**
      * List Sites API 응답 헤더를 로그로 기록하는 메서드.
      *
-     * @param response HttpResponse 객체
+     * @param headers 응답 헤더
      */
-    public void listSiteResponseHeaders(HttpResponse<String> response) {
-        HeaderInfo headerInfo = commonResponseHeaders(response);
+    public void listSiteResponseHeaders(Headers headers) {
+        HeaderInfo headerInfo = commonResponseHeaders(headers);
 
         logger.debug("AWS 요청 추적 헤더 : {}, 응답이 캐시에서 제공되었는지(Hit), 아니면 오리진 서버에서 직접 제공되었는지(Miss) : {}, " +
                         "요청이나 응답이 전송되는 과정에서 거쳐간 중개 서버의 정보 : {}, CloudFront Point of Presence(POP)의 위치 : {}, " +
@@ -91,12 +92,12 @@ public class LogService {
     /**
      * Individual Vehicles API 응답 헤더를 로그로 기록하는 메서드.
      *
-     * @param response HttpResponse 객체
+     * @param headers 응답 헤더
      */
-    public void individualVehiclesResponseHeaders(HttpResponse<String> response) {
+    public void individualVehiclesResponseHeaders(Headers headers) {
         // Amazon Web Services에서 생성한 특정 요청 ID로, 요청을 추적하고 문제를 진단하는 데 사용
-        String xAmznRequestId = Optional.ofNullable(response.getHeaders().getFirst("x-amzn-RequestId")).orElse("No AWS Request ID");
-        HeaderInfo headerInfo = commonResponseHeaders(response);
+        String xAmznRequestId = Optional.ofNullable(headers.getFirst("x-amzn-RequestId")).orElse("No AWS Request ID");
+        HeaderInfo headerInfo = commonResponseHeaders(headers);
 
         logger.debug("Amazon Web Services에서 생성한 특정 요청 ID : {}, AWS 요청 추적 헤더 : {}, 응답이 캐시에서 제공되었는지(Hit) 아니면 오리진 서버에서 직접 제공되었는지(Miss) : {}, " +
                         "요청이나 응답이 전송되는 과정에서 거쳐간 중개 서버의 정보 : {}, CloudFront Point of Presence(POP)의 위치 : {}, " +
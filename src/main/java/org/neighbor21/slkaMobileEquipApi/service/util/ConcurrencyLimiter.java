@@ -0,0 +1,76 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : ConcurrencyLimiter.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 스레드 풀 크기 대신 세마포어로 동시 실행 수를 제한하는 클래스.
+ * 가상 스레드 모드에서는 장소마다 스레드를 하나씩 만들기 때문에, 실제 API 호출 수와 DB 커넥션 사용 수는 여기서 제한한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class ConcurrencyLimiter {
+
+    private final Semaphore apiPermits;
+    private final Semaphore dbPermits;
+    private final int submissionWindow;
+
+    /**
+     * ConcurrencyLimiter 생성자.
+     *
+     * @param apiConcurrency   동시에 진행할 수 있는 최대 API 호출 수
+     * @param dbConcurrency    동시에 사용할 수 있는 최대 DB 커넥션 수
+     * @param submissionWindow 실행기에 한 번에 제출할 최대 작업 수
+     */
+    public ConcurrencyLimiter(int apiConcurrency, int dbConcurrency, int submissionWindow) {
+        this.apiPermits = new Semaphore(Math.max(1, apiConcurrency), true);
+        this.dbPermits = new Semaphore(Math.max(1, dbConcurrency), true);
+        this.submissionWindow = Math.max(1, submissionWindow);
+    }
+
+    /**
+     * API 호출 권한을 얻을 때까지 대기한다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트 발생 시
+     */
+    public void acquireApiPermit() throws InterruptedException {
+        apiPermits.acquire();
+    }
+
+    /**
+     * API 호출 권한을 반납한다.
+     */
+    public void releaseApiPermit() {
+        apiPermits.release();
+    }
+
+    /**
+     * DB 커넥션 사용 권한을 얻을 때까지 대기한다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트 발생 시
+     */
+    public void acquireDbPermit() throws InterruptedException {
+        dbPermits.acquire();
+    }
+
+    /**
+     * DB 커넥션 사용 권한을 반납한다.
+     */
+    public void releaseDbPermit() {
+        dbPermits.release();
+    }
+
+    /**
+     * 실행기에 한 번에 제출할 최대 작업 수. 가상 스레드 모드에서는 사실상 제한이 없다.
+     *
+     * @return 제출 가능한 작업 수
+     */
+    public int getSubmissionWindow() {
+        return submissionWindow;
+    }
+}
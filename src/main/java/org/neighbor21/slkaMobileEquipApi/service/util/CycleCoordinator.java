@@ -0,0 +1,83 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : CycleCoordinator.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 스케줄 주기(cycle)가 이름별로 하나만 실행되도록 보장하는 클래스.
+ * 이전 주기가 아직 실행 중이면 새 주기는 기다리지 않고 바로 건너뛴다(다음 cron 시각에 최신 상태로 다시 시작).
+ * 스케줄러 스레드 풀을 늘리거나 주기가 cron 간격보다 오래 걸려도 같은 주기의 카운터/캐시를 두 스레드가 동시에 바꾸지 않는다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class CycleCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(CycleCoordinator.class);
+
+    private final Map<String, CycleState> cycles = new ConcurrentHashMap<>();
+
+    /**
+     * 주기별 실행 상태
+     */
+    private static final class CycleState {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final AtomicLong startedAt = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+    }
+
+    /**
+     * 주기 작업
+     */
+    @FunctionalInterface
+    public interface CycleWork {
+        void run() throws Throwable;
+    }
+
+    /**
+     * 같은 이름의 주기가 실행 중이 아니면 work 를 실행한다. 실행 중이면 건너뛴다.
+     *
+     * @param name 주기 이름
+     * @param work 주기 작업
+     * @return 실행했으면 true, 건너뛰었으면 false
+     * @throws Throwable work 에서 발생한 예외
+     */
+    public boolean runExclusively(String name, CycleWork work) throws Throwable {
+        CycleState state = cycles.computeIfAbsent(name, key -> new CycleState());
+        if (!state.running.compareAndSet(false, true)) {
+            long skipped = state.skipped.incrementAndGet();
+            logger.warn("{} cycle still running for {} ms, skipping this run ({} skipped in total)",
+                    name, System.currentTimeMillis() - state.startedAt.get(), skipped);
+            return false;
+        }
+        state.startedAt.set(System.currentTimeMillis());
+        try {
+            work.run();
+            return true;
+        } finally {
+            state.running.set(false);
+        }
+    }
+
+    /**
+     * 겹쳐서 건너뛴 주기 수
+     *
+     * @param name 주기 이름
+     * @return 건너뛴 횟수
+     */
+    public long getSkippedRuns(String name) {
+        CycleState state = cycles.get(name);
+        return state == null ? 0L : state.skipped.get();
+    }
+}
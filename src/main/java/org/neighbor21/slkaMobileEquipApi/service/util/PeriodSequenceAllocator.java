@@ -0,0 +1,48 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : PeriodSequenceAllocator.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 설치위치별 tl_mvmneq_period 순번(sqno)을 메모리에서 할당하는 클래스.
+ * 시작할 때 한 번 읽은 설치위치별 최대 순번에서 이어서 연속된 순번 범위를 원자적으로 나눠주므로,
+ * List Sites 주기마다 최대 순번 집계 쿼리를 실행하지 않는다. 저장이 충돌하면 DB 값으로 다시 맞춘다(resync).
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class PeriodSequenceAllocator {
+
+    private final Map<String, AtomicInteger> maxSequences = new ConcurrentHashMap<>();
+
+    /**
+     * count 개의 연속된 순번을 할당한다.
+     *
+     * @param instllcId 설치위치 ID
+     * @param count     필요한 순번 수
+     * @return 할당된 첫 순번(first ~ first + count - 1)
+     */
+    public int allocate(String instllcId, int count) {
+        AtomicInteger maxSequence = maxSequences.computeIfAbsent(instllcId, id -> new AtomicInteger());
+        return maxSequence.getAndAdd(count) + 1;
+    }
+
+    /**
+     * DB 에서 읽은 순번을 반영한다. 메모리 값보다 크면 그 값으로 올린다.
+     *
+     * @param instllcId   설치위치 ID
+     * @param sequenceNo DB 의 순번
+     */
+    public void observe(String instllcId, int sequenceNo) {
+        maxSequences.computeIfAbsent(instllcId, id -> new AtomicInteger()).accumulateAndGet(sequenceNo, Math::max);
+    }
+}
@@ -0,0 +1,216 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.SiteRetryQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : PipelineMetrics.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 수집 파이프라인(ATLYST 호출 → JSON 변환 → 엔티티 변환 → DB 삽입)의 Micrometer 지표를 한 곳에서 정의하는 클래스.
+ * 지표는 /actuator/prometheus 로 수집되며 이름은 Prometheus 에서 slka_... 형태(점 → 밑줄, 단위 접미사)로 바뀐다.
+ * 타이머와 응답 크기는 percentile histogram 을 함께 내보내므로 Prometheus 에서 histogram_quantile 로 p95/p99 를 구할 수 있다.
+ * 장소 ID 는 워터마크 지연 gauge 에만 태그로 붙이고, 호출/삽입 타이머는 엔드포인트/테이블 단위로만 나눠 시계열 수를 제한한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class PipelineMetrics {
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private SiteRetryQueue siteRetryQueue;
+
+    @Autowired
+    private VehicleUtils.LastVehiclePassTimeManager lastVehiclePassTimeManager;
+
+    // 워터마크 지연 gauge 를 등록한 장소
+    private final Set<Integer> watermarkSites = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        // CircuitBreaker 상태/호출 수, Bulkhead 남은 자리
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        Gauge.builder("slka.site.retry.queue.depth", siteRetryQueue, SiteRetryQueue::getDepth)
+                .description("Sites waiting in the retry queue after failing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ATLYST HTTP 요청 한 번의 소요 시간(응답 바디를 다 읽을 때까지)
+     *
+     * @param endpoint list_sites | individual_vehicles
+     * @param status   HTTP 상태 코드, 응답을 받지 못했으면 0
+     * @param nanos    소요 시간(ns)
+     */
+    public void recordApiRequest(String endpoint, int status, long nanos) {
+        String outcome = status == 0 ? "error" : status >= 500 ? "server_error" : status >= 400 ? "client_error" : SUCCESS;
+        timer("slka.api.request", "ATLYST HTTP request latency", "endpoint", endpoint, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * ATLYST 응답 크기(전송된 바이트, gzip 이면 압축된 크기)
+     *
+     * @param path  요청 경로
+     * @param bytes 바이트 수
+     */
+    public void recordResponseSize(String path, long bytes) {
+        DistributionSummary.builder("slka.api.response.size")
+                .description("ATLYST response size on the wire")
+                .baseUnit("bytes")
+                .tag("path", path)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(256.0 * 1024 * 1024)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * 장소 하나의 개별 차량 처리 시간(재시도, catch-up 페이지, 스트리밍 저장 포함)
+     *
+     * @param mode    stream | fetch
+     * @param success 성공 여부
+     * @param nanos   소요 시간(ns)
+     */
+    public void recordSiteFetch(String mode, boolean success, long nanos) {
+        timer("slka.site.fetch", "Per-site individual vehicles fetch latency", "mode", mode, "outcome", success ? SUCCESS : FAILURE)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * JSON 역직렬화 시간
+     *
+     * @param type  응답 종류
+     * @param nanos 소요 시간(ns)
+     */
+    public void recordDecode(String type, long nanos) {
+        timer("slka.json.decode", "ATLYST JSON decode time", "type", type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * DTO → 엔티티(또는 VehiclePassChunk) 변환 시간
+     *
+     * @param type  변환 대상
+     * @param nanos 소요 시간(ns)
+     */
+    public void recordConversion(String type, long nanos) {
+        timer("slka.conversion", "Entity conversion time", "type", type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * BatchService 삽입 경로별 소요 시간(DB 사용 권한 대기, 커넥션, 실행, 커밋 포함)
+     *
+     * @param path    삽입 경로
+     * @param loader  jdbc | copy
+     * @param success 성공 여부
+     * @param nanos   소요 시간(ns)
+     */
+    public void recordBatchInsert(String path, String loader, boolean success, long nanos) {
+        timer("slka.batch.insert", "BatchService insert latency", "path", path, "loader", loader, "outcome", success ? SUCCESS : FAILURE)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 커밋된 행 수. 실제로 들어간 행은 inserted, ON CONFLICT 로 건너뛴 행은 deduplicated,
+     * 드라이버가 건수를 알려주지 않으면(배치 재작성 등) unknown 으로 센다.
+     *
+     * @param table     테이블
+     * @param attempted 삽입을 시도한 행 수
+     * @param inserted  삽입된 행 수, 모르면 음수
+     */
+    public void recordRows(String table, int attempted, int inserted) {
+        if (inserted < 0) {
+            rows(table, "unknown").increment(attempted);
+            return;
+        }
+        rows(table, "inserted").increment(inserted);
+        if (attempted > inserted) {
+            rows(table, "deduplicated").increment(attempted - inserted);
+        }
+    }
+
+    /**
+     * 롤백된 행 수
+     *
+     * @param table 테이블
+     * @param rows  행 수
+     */
+    public void recordFailedRows(String table, int rows) {
+        rows(table, "failed").increment(rows);
+    }
+
+    /**
+     * 장소별 워터마크 지연(현재 시간 - 마지막으로 저장한 차량 통과 시간, 초) gauge 를 등록한다.
+     * 값은 수집할 때 계산하며 아직 저장한 차량이 없는 장소는 NaN 이다.
+     *
+     * @param siteIds 장소 ID 목록
+     */
+    public void registerWatermarkLag(Collection<Integer> siteIds) {
+        for (Integer siteId : siteIds) {
+            if (watermarkSites.add(siteId)) {
+                Gauge.builder("slka.watermark.lag", lastVehiclePassTimeManager, manager -> watermarkLagSeconds(manager, siteId))
+                        .description("Seconds since the last stored vehicle pass of the site")
+                        .baseUnit("seconds")
+                        .tag("site", siteId.toString())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private static double watermarkLagSeconds(VehicleUtils.LastVehiclePassTimeManager manager, Integer siteId) {
+        Timestamp watermark = manager.findLastVehiclePassTime(siteId);
+        return watermark == null ? Double.NaN : (System.currentTimeMillis() - watermark.getTime()) / 1000.0;
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private Counter rows(String table, String result) {
+        return Counter.builder("slka.rows")
+                .description("Rows written by BatchService")
+                .tag("table", table)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
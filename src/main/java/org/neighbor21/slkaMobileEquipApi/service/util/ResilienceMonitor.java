@@ -0,0 +1,62 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : ResilienceMonitor.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : ResilienceConfig 에서 만든 CircuitBreaker/Bulkhead 의 상태를 조회하고 주기마다 로그로 남기는 클래스.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class ResilienceMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceMonitor.class);
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    /**
+     * 대상별 CircuitBreaker 상태
+     *
+     * @return 이름 -> 상태(CLOSED, OPEN, HALF_OPEN 등)
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> states.put(circuitBreaker.getName(), circuitBreaker.getState()));
+        return states;
+    }
+
+    /**
+     * CircuitBreaker 상태/실패율/거부 건수와 Bulkhead 남은 자리를 로그로 남긴다.
+     */
+    public void logStats() {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            logger.info("Circuit breaker {}: state {}, failure rate {}%, slow call rate {}%, calls {} (failed {}), not permitted {}",
+                    circuitBreaker.getName(), circuitBreaker.getState(), metrics.getFailureRate(), metrics.getSlowCallRate(),
+                    metrics.getNumberOfBufferedCalls(), metrics.getNumberOfFailedCalls(), metrics.getNumberOfNotPermittedCalls());
+        });
+        bulkheadRegistry.getAllBulkheads().forEach(bulkhead -> {
+            Bulkhead.Metrics metrics = bulkhead.getMetrics();
+            logger.info("Bulkhead {}: available {} of {}", bulkhead.getName(), metrics.getAvailableConcurrentCalls(), metrics.getMaxAllowedConcurrentCalls());
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : SiteFingerprintCache.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소 정보(이름, 설명, 위도, 경도, 장비 아이디)의 64bit 지문(fingerprint)을 장소 ID 별로 보관하는 캐시.
+ * List Sites 를 호출할 때마다 모든 장소의 TL_MVMNEQ_CUR/LOG 를 다시 쓰지 않도록 지문이 바뀐 장소만 골라낸다.
+ * 시작할 때 tl_mvmneq_cur 에서 채우고, 저장에 성공한 장소만 갱신한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class SiteFingerprintCache {
+    private static final Logger logger = LoggerFactory.getLogger(SiteFingerprintCache.class);
+    // tl_mvmneq_cur.lat/lon 컬럼의 소수점 자리수(numeric(14, 8))
+    private static final int COORDINATE_SCALE = 8;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * tl_mvmneq_cur 에 저장된 장소 정보로 캐시를 채운다. 실패하면 빈 캐시로 시작한다(모든 장소를 변경된 것으로 처리).
+     */
+    public void loadFromDB() {
+        String query = "SELECT instllc_id, instllc_nm, instllc_descr, lat, lon, eqpmnt_id FROM srlk.tl_mvmneq_cur";
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+
+            while (resultSet.next()) {
+                fingerprints.put(resultSet.getString("instllc_id"), fingerprint(
+                        resultSet.getString("instllc_nm"),
+                        resultSet.getString("instllc_descr"),
+                        resultSet.getBigDecimal("lat"),
+                        resultSet.getBigDecimal("lon"),
+                        resultSet.getString("eqpmnt_id")));
+            }
+            logger.info("Loaded {} site fingerprints from tl_mvmneq_cur", fingerprints.size());
+        } catch (SQLException e) {
+            logger.error("Failed to load site fingerprints from DB, every site will be treated as changed", e);
+        }
+    }
+
+    /**
+     * 캐시에 저장된 지문과 다른(또는 처음 보는) 장소만 반환한다. 캐시는 바꾸지 않는다.
+     *
+     * @param sites List Sites 응답의 장소 목록
+     * @return 변경된 장소 목록
+     */
+    public List<ListSiteDTO> changedSites(List<ListSiteDTO> sites) {
+        List<ListSiteDTO> changed = new ArrayList<>();
+        for (ListSiteDTO site : sites) {
+            if (site.getSite_id() == null) {
+                continue;
+            }
+            Long cached = fingerprints.get(site.getSite_id().toString());
+            if (cached == null || cached != fingerprint(site)) {
+                changed.add(site);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 저장에 성공한 장소의 지문을 갱신한다.
+     *
+     * @param sites 저장한 장소 목록
+     */
+    public void markSaved(List<ListSiteDTO> sites) {
+        for (ListSiteDTO site : sites) {
+            if (site.getSite_id() != null) {
+                fingerprints.put(site.getSite_id().toString(), fingerprint(site));
+            }
+        }
+    }
+
+    /**
+     * 장소 DTO 의 지문을 계산한다. 위도/경도는 SiteService 와 같이 BigDecimal 로 바꾼 뒤 DB 컬럼 자리수로 반올림한다.
+     */
+    private static long fingerprint(ListSiteDTO site) {
+        return fingerprint(site.getName(), site.getDescription(),
+                site.getLatitude() == null ? null : BigDecimal.valueOf(site.getLatitude()),
+                site.getLongitude() == null ? null : BigDecimal.valueOf(site.getLongitude()),
+                site.getAsset_management_id());
+    }
+
+    /**
+     * 장소 정보의 64bit FNV-1a 지문을 계산한다.
+     */
+    private static long fingerprint(String name, String description, BigDecimal latitude, BigDecimal longitude, String assetId) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, name);
+        hash = mix(hash, description);
+        hash = mix(hash, latitude == null ? null : latitude.setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).toPlainString());
+        hash = mix(hash, longitude == null ? null : longitude.setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).toPlainString());
+        hash = mix(hash, assetId);
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            hash ^= 0xff; // null 과 빈 문자열을 구분
+            return hash * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash ^= c & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= c >>> 8;
+            hash *= FNV_PRIME;
+        }
+        hash ^= 0xfe; // 필드 구분자
+        return hash * FNV_PRIME;
+    }
+}
@@ -0,0 +1,58 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : SurveyPeriodIndex.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소별로 이미 저장된 조사 기간(start_dt, end_dt)을 보관하는 인덱스.
+ * List Sites 를 호출할 때마다 모든 조사 기간을 다시 넣지 않도록, (instllc_id, start_dt, end_dt) 가 처음 보는 조사 기간만 골라낸다.
+ * 시작할 때 tl_mvmneq_period 에서 채우고(SurveyPeriodService.loadKnownPeriods), 저장에 성공한 조사 기간을 추가한다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class SurveyPeriodIndex {
+    private final Map<String, Set<PeriodKey>> periodsBySite = new ConcurrentHashMap<>();
+
+    /**
+     * 조사 기간 키(시작/종료 시간, 초 단위)
+     */
+    public record PeriodKey(long startSecond, long endSecond) {
+        public static PeriodKey of(LocalDateTime startTime, LocalDateTime endTime) {
+            return new PeriodKey(startTime.toEpochSecond(ZoneOffset.UTC), endTime.toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    /**
+     * 이미 저장된 조사 기간인지 확인한다.
+     *
+     * @param instllcId 설치위치 ID
+     * @param key       조사 기간 키
+     * @return 저장되어 있으면 true
+     */
+    public boolean contains(String instllcId, PeriodKey key) {
+        Set<PeriodKey> periods = periodsBySite.get(instllcId);
+        return periods != null && periods.contains(key);
+    }
+
+    /**
+     * 저장한 조사 기간을 추가한다.
+     *
+     * @param instllcId 설치위치 ID
+     * @param key       조사 기간 키
+     */
+    public void add(String instllcId, PeriodKey key) {
+        periodsBySite.computeIfAbsent(instllcId, id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+}
@@ -0,0 +1,160 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
+import org.neighbor21.slkaMobileEquipApi.dto.listSite.SurveyPeriodDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : SurveyWindowIndex.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소별 조사 기간(survey_periods)의 시간 구간 인덱스.
+ * List Sites 주기마다 장소별 구간을 시작 시간 순으로 정렬하고 겹치는 구간을 합쳐서 배열로 바꿔 두므로,
+ * "장소 X 가 시간 T 에 수집 중인가" 를 이진 탐색으로 O(log n) 에 답한다. 장소 교체는 배열 참조 하나를 바꾸므로 읽는 쪽은 잠금이 필요 없다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+@Component
+public class SurveyWindowIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SurveyWindowIndex.class);
+
+    // survey_periods 시간대
+    @Value("${scheduler.vehicles.survey-zone:Asia/Colombo}")
+    private String zone;
+
+    private final Map<Integer, Windows> windowsBySite = new ConcurrentHashMap<>();
+    // 조사 기간 밖이라서 건너뛴 호출 수(누적)
+    private final LongAdder skippedPolls = new LongAdder();
+
+    /**
+     * 합쳐진 구간(epoch millis). starts 는 오름차순이고 구간끼리 겹치지 않는다.
+     */
+    private record Windows(long[] starts, long[] ends) {
+    }
+
+    /**
+     * List Sites 응답으로 장소별 구간을 다시 만든다. 조사 기간이 없거나 읽을 수 없는 장소는 모르는 장소로 남긴다.
+     *
+     * @param sites 장소 목록
+     */
+    public void refresh(List<ListSiteDTO> sites) {
+        ZoneId zoneId = ZoneId.of(zone);
+        int indexed = 0;
+        for (ListSiteDTO site : sites) {
+            if (site.getSite_id() == null) {
+                continue;
+            }
+            Windows windows = build(site.getSurvey_periods(), zoneId);
+            if (windows == null) {
+                windowsBySite.remove(site.getSite_id());
+            } else {
+                windowsBySite.put(site.getSite_id(), windows);
+                indexed++;
+            }
+        }
+        logger.info("Survey window index refreshed: {} sites with survey periods", indexed);
+    }
+
+    /**
+     * 장소가 시간 now 에 수집 중인지 확인한다. 구간 앞뒤로 graceMs 만큼 여유를 둔다.
+     *
+     * @param siteId  장소 ID
+     * @param now     확인할 시간(epoch millis)
+     * @param graceMs 구간 앞뒤 여유 시간(ms)
+     * @return 수집 중이거나 조사 기간을 모르면 true
+     */
+    public boolean isActive(Integer siteId, long now, long graceMs) {
+        Windows windows = windowsBySite.get(siteId);
+        if (windows == null) {
+            return true;
+        }
+        // now + grace 보다 늦지 않게 시작한 마지막 구간을 찾음
+        int index = Arrays.binarySearch(windows.starts(), now + graceMs);
+        int candidate = index >= 0 ? index : -index - 2;
+        return candidate >= 0 && windows.ends()[candidate] + graceMs >= now;
+    }
+
+    /**
+     * 수집 중인 장소만 골라내고 건너뛴 장소 수를 누적한다.
+     *
+     * @param siteIds 장소 ID 목록
+     * @param now     확인할 시간(epoch millis)
+     * @param graceMs 구간 앞뒤 여유 시간(ms)
+     * @return 수집 중인 장소 ID 목록
+     */
+    public List<Integer> filterActive(Collection<Integer> siteIds, long now, long graceMs) {
+        List<Integer> active = new ArrayList<>(siteIds.size());
+        for (Integer siteId : siteIds) {
+            if (isActive(siteId, now, graceMs)) {
+                active.add(siteId);
+            }
+        }
+        int skipped = siteIds.size() - active.size();
+        skippedPolls.add(skipped);
+        if (skipped > 0) {
+            logger.info("Skipping {} of {} sites outside their survey periods (grace {} ms), {} skipped in total",
+                    skipped, siteIds.size(), graceMs, skippedPolls.sum());
+        }
+        return active;
+    }
+
+    /**
+     * 조사 기간 밖이라서 건너뛴 호출 수(누적)
+     */
+    public long getSkippedPolls() {
+        return skippedPolls.sum();
+    }
+
+    /**
+     * 조사 기간 목록을 정렬하고 겹치는 구간을 합친다.
+     */
+    private Windows build(List<SurveyPeriodDTO> periods, ZoneId zoneId) {
+        if (periods == null || periods.isEmpty()) {
+            return null;
+        }
+        long[][] intervals = new long[periods.size()][];
+        int count = 0;
+        for (SurveyPeriodDTO period : periods) {
+            try {
+                long start = LocalDateTime.parse(period.getStart_time().replace(" ", "T")).atZone(zoneId).toInstant().toEpochMilli();
+                long end = LocalDateTime.parse(period.getEnd_time().replace(" ", "T")).atZone(zoneId).toInstant().toEpochMilli();
+                if (end >= start) {
+                    intervals[count++] = new long[]{start, end};
+                }
+            } catch (DateTimeParseException | NullPointerException e) {
+                logger.debug("Skipping unreadable survey period: {} ~ {}", period.getStart_time(), period.getEnd_time());
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        Arrays.sort(intervals, 0, count, (a, b) -> Long.compare(a[0], b[0]));
+
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int merged = 0;
+        for (int i = 0; i < count; i++) {
+            if (merged > 0 && intervals[i][0] <= ends[merged - 1]) {
+                ends[merged - 1] = Math.max(ends[merged - 1], intervals[i][1]);
+            } else {
+                starts[merged] = intervals[i][0];
+                ends[merged] = intervals[i][1];
+                merged++;
+            }
+        }
+        return new Windows(Arrays.copyOf(starts, merged), Arrays.copyOf(ends, merged));
+    }
+}
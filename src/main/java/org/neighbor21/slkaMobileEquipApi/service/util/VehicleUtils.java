@@ -1,5 +1,6 @@
 package org.neighbor21.slkaMobileEquipApi.service.util;
 
+import org.neighbor21.slkaMobileEquipApi.service.loader.WatermarkTableStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,19 +8,13 @@ import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
@@ -32,6 +27,10 @@ import java.util.stream.Collectors;
  * -----------------------------------------------------------
  * 24. 4. 23.        kjg08           최초 생성
  * 24. 5. 17.        user            주석 추가 및 description 갱신
+ * 26. 10. 18.        kjg08           마지막 통과 시간을 장소별로 바로 파일 로그에 기록(WatermarkFileStore), 인스턴스 메서드로 변경
+ * 26. 10. 18.        kjg08           watermark.store=db 이면 tl_mvmneq_watermark 에서 한 번에 로드(파일 미사용)
+ * 26. 10. 18.        kjg08           마지막 통과 시간을 락 없는 WatermarkMap 으로 보관(뒤로 가지 않음)
+ * 26. 10. 18.        kjg08           워터마크 지연 지표용 findLastVehiclePassTime 추가
  */
 public class VehicleUtils {
 
@@ -54,24 +53,32 @@ public class VehicleUtils {
      * Individual Vehicles 개별 차량(특정 장소에 대한 개별 차량 기록) API를 5분마다 호출할 때
      * 이전에 이미 호출한 데이터를 다시 호출하지 않기 위해,
      * 그리고 이미 지나간 차량과 현재 통과하는 차량의 시간 차이(초) 값을 구하기 위해,
-     * 서버가 재시작한 경우에도 이어지기 위해서 마지막 시간을 파일에 저장하고, 필요할 때 불러오는 유틸리티 클래스
+     * 서버가 재시작한 경우에도 이어지기 위해서 마지막 시간을 파일에 저장하고, 필요할 때 불러오는 유틸리티 클래스.
+     * 장소의 저장이 끝날 때마다 WatermarkFileStore 의 로그에 바로 기록하므로 주기 중간에 종료되어도 진행 상황이 남는다.
+     * watermark.store=db 이면 진행 위치는 BatchService 가 통과 차량과 같은 트랜잭션에서 tl_mvmneq_watermark 에 기록하므로
+     * 여기서는 메모리 값만 갱신하고 파일은 쓰지 않는다(컨테이너에 파일을 마운트하지 않아도 됨).
      */
     @Component
     public static class LastVehiclePassTimeManager {
         private static final Logger logger = LoggerFactory.getLogger(LastVehiclePassTimeManager.class);
-        private static final String LAST_PROCESSED_FILENAME = "last_vehicle_pass_time.txt";
-        private static final Map<Integer, Timestamp> lastVehiclePassTimeMap = new HashMap<>();
+        private final WatermarkMap lastVehiclePassTimeMap = new WatermarkMap(); // 병렬 호출 스레드에서 동시에 조회/갱신, 값은 커지기만 함
 
         @Autowired
         private DataSource dataSource;
 
+        @Autowired
+        private WatermarkFileStore watermarkFileStore;
+
+        @Autowired
+        private WatermarkTableStore watermarkTableStore;
+
         /**
          * siteId에 대한 마지막 차량 통과 시간을 반환합니다.
          *
          * @param siteId 장소 ID
          * @return 마지막 차량 통과 시간
          */
-        public static Timestamp getLastVehiclePassTime(Integer siteId) {
+        public Timestamp getLastVehiclePassTime(Integer siteId) {
             return Optional.ofNullable(lastVehiclePassTimeMap.get(siteId)) // Map에서 siteId에 해당하는 값을 가져와 Optional로 감쌈 , 서비스가 시작될때 lastVehiclePassTimeMap 에 넣은 값을 가져오는것.
                     .orElseGet(() -> { // 만약 값이 없으면 (Optional이 비어있으면) 실행
                         logger.info("No existing timestamp found for siteId {}. Returning current time minus one hour.", siteId);
@@ -80,45 +87,87 @@ public class VehicleUtils {
         }
 
         /**
-         * siteId에 대한 마지막 차량 통과 시간을 업데이트합니다.
+         * siteId에 대한 마지막 차량 통과 시간을 반환합니다. 없으면 null 을 반환합니다(차량 간격 계산/지표 수집용, 로그 없음).
+         *
+         * @param siteId 장소 ID
+         * @return 마지막 차량 통과 시간 또는 null
+         */
+        public Timestamp findLastVehiclePassTime(Integer siteId) {
+            return lastVehiclePassTimeMap.get(siteId);
+        }
+
+        /**
+         * siteId에 대한 마지막 차량 통과 시간을 업데이트하고 바로 파일 로그에 기록합니다.
+         * 저장된 시간보다 이전이면 무시합니다(늦게 끝난 스레드가 진행 위치를 되돌리지 않음).
          *
          * @param siteId   장소 ID
          * @param passTime 업데이트할 통과 시간
          */
-        public static void updateLastVehiclePassTime(Integer siteId, Timestamp passTime) {
-            lastVehiclePassTimeMap.put(siteId, passTime);
+        public void updateLastVehiclePassTime(Integer siteId, Timestamp passTime) {
+            if (!lastVehiclePassTimeMap.advance(siteId, passTime.getTime())) {
+                return;
+            }
+            if (watermarkTableStore.isEnabled()) {
+                return; // 삽입 트랜잭션에서 이미 기록됨
+            }
+            try {
+                watermarkFileStore.append(siteId, passTime);
+                if (watermarkFileStore.needsCompaction()) {
+                    saveLastVehiclePassTimes();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to append last vehicle pass time for siteId {}", siteId, e);
+            }
         }
 
         /**
-         * 마지막 차량 통과 시간을 파일에서 로드합니다.(프로그램이 시작될때 넣는다)
+         * 마지막 차량 통과 시간을 파일(스냅샷 + 로그)에서 로드합니다.(프로그램이 시작될때 넣는다)
          */
         public void loadLastVehiclePassTimes() {
-            Path path = Paths.get(LAST_PROCESSED_FILENAME);
+            if (watermarkTableStore.isEnabled()) {
+                loadLastVehiclePassTimesFromWatermarkTable();
+                return;
+            }
             try {
-                if (!Files.exists(path)) {
-                    logger.info("No existing file found. A new file will be created.");
-                    loadLastVehiclePassTimesFromDB();  // 파일이 존재하지 않으면 데이터베이스에서 로드합니다.
-                    saveLastVehiclePassTimes();  // 그리고 파일에 저장합니다.
+                Map<Integer, Timestamp> stored = watermarkFileStore.load();
+                if (stored.isEmpty()) {
+                    logger.info("No existing watermark found. Loading data from DB.");
+                    loadLastVehiclePassTimesFromDB();  // 파일이 없거나 비어 있으면 데이터베이스에서 로드합니다.
                 } else {
-                    List<String> lines = Files.readAllLines(path);
-                    if (lines.isEmpty()) {
-                        logger.info("File exists but is empty. Loading data from DB.");
-                        loadLastVehiclePassTimesFromDB();  // 파일이 존재하지만 비어 있으면 데이터베이스에서 로드합니다.
-                        saveLastVehiclePassTimes();  // 그리고 파일에 저장합니다.
-                    } else {
-                        lines.forEach(line -> {
-                            String[] parts = line.split(",");
-                            Integer siteId = Integer.parseInt(parts[0]);
-                            Timestamp timestamp = Timestamp.valueOf(parts[1]);
-                            lastVehiclePassTimeMap.put(siteId, timestamp);
-                        });
-                    }
+                    lastVehiclePassTimeMap.advanceAll(stored);
                 }
+                saveLastVehiclePassTimes();  // 로그를 스냅샷으로 합칩니다.
             } catch (IOException e) {
                 logger.error("Failed to load last processed times", e);
             }
         }
 
+        /**
+         * tl_mvmneq_watermark 에서 마지막 차량 통과 시간을 한 번의 쿼리로 로드합니다.
+         * 테이블이 비어 있으면(처음 전환한 경우) 기존 파일, 그것도 없으면 tl_mvmneq_cur 에서 로드합니다.
+         */
+        private void loadLastVehiclePassTimesFromWatermarkTable() {
+            try {
+                Map<Integer, Timestamp> stored = watermarkTableStore.loadAll();
+                if (!stored.isEmpty()) {
+                    lastVehiclePassTimeMap.advanceAll(stored);
+                    logger.info("Loaded {} last vehicle pass times from tl_mvmneq_watermark", stored.size());
+                    return;
+                }
+            } catch (SQLException e) {
+                logger.error("Failed to load last vehicle pass times from tl_mvmneq_watermark", e);
+            }
+            try {
+                lastVehiclePassTimeMap.advanceAll(watermarkFileStore.load());
+            } catch (IOException e) {
+                logger.error("Failed to load last processed times", e);
+            }
+            if (lastVehiclePassTimeMap.isEmpty()) {
+                logger.info("No existing watermark found. Loading data from DB.");
+                loadLastVehiclePassTimesFromDB();
+            }
+        }
+
         /**
          * 데이터베이스에서 마지막 차량 통과 시간을 로드합니다.
          */
@@ -132,7 +181,9 @@ public class VehicleUtils {
                 while (resultSet.next()) {
                     Integer siteId = resultSet.getInt("instllc_id");
                     Timestamp timestamp = resultSet.getTimestamp("clct_dt");
-                    lastVehiclePassTimeMap.put(siteId, timestamp);
+                    if (timestamp != null) {
+                        lastVehiclePassTimeMap.advance(siteId, timestamp.getTime());
+                    }
                 }
             } catch (SQLException e) {
                 logger.error("Failed to load last vehicle pass times from DB", e);
@@ -140,20 +191,15 @@ public class VehicleUtils {
         }
 
         /**
-         * 마지막 차량 통과 시간을 파일에 저장합니다.
+         * 마지막 차량 통과 시간 전체를 스냅샷 파일에 원자적으로 저장하고 로그를 비웁니다(watermark.store=file 일 때).
          */
-        public static void saveLastVehiclePassTimes() {
-            List<String> lines = lastVehiclePassTimeMap.entrySet().stream()
-                    .map(entry -> entry.getKey() + "," + entry.getValue().toString())
-                    .collect(Collectors.toList());
+        public void saveLastVehiclePassTimes() {
+            if (watermarkTableStore.isEnabled()) {
+                return; // tl_mvmneq_watermark 에 이미 커밋됨
+            }
             try {
-                Path path = Paths.get(LAST_PROCESSED_FILENAME);
-                if (!Files.exists(path)) {
-                    Files.createFile(path);
-                    logger.info("파일이 존재하지 않아 새 파일을 생성했습니다: {}", LAST_PROCESSED_FILENAME);
-                }
-                Files.write(path, lines);
-                logger.info("각 설치위치의 마지막 차량 통과 시간으로 마지막 조회 한 시간을 파일에 저장 성공 {}", LAST_PROCESSED_FILENAME);
+                watermarkFileStore.writeSnapshot(lastVehiclePassTimeMap::snapshot);
+                logger.info("각 설치위치의 마지막 차량 통과 시간으로 마지막 조회 한 시간을 파일에 저장 성공 ({} sites)", lastVehiclePassTimeMap.size());
             } catch (IOException e) {
                 logger.error("Failed to save last processed times", e);
             }
@@ -0,0 +1,293 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : WatermarkFileStore.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소별 마지막 차량 통과 시간(watermark)을 파일에 안전하게 저장하는 클래스.
+ * 스냅샷 파일(last_vehicle_pass_time.txt, 기존 형식 그대로)과 추가 전용 로그 파일(.log)로 구성된다.
+ * 장소의 저장이 끝날 때마다 로그에 한 줄을 추가하고, sync-every 건 또는 sync-interval-ms 마다 fsync 를 묶어서 수행한다.
+ * 로그가 compact-threshold 건을 넘거나 주기가 끝나면 스냅샷을 임시 파일에 쓰고 fsync 한 뒤 원자적 이름 변경(ATOMIC_MOVE)으로 교체하고 로그를 비운다.
+ * 시작할 때는 스냅샷을 읽고 로그를 다시 적용하므로, 주기 중간에 종료되어도 로그에 기록된 장소의 진행 상황은 남는다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ * 26. 10. 18.        kjg08           잠금 안에서 스냅샷 값을 만드는 writeSnapshot(Supplier) 추가
+ * 26. 10. 18.        kjg08           쓰다가 끊긴 로그 마지막 줄을 읽지 않고 잘라냄, 남은 임시 스냅샷 파일 삭제
+ */
+@Component
+public class WatermarkFileStore {
+    private static final Logger logger = LoggerFactory.getLogger(WatermarkFileStore.class);
+
+    @Value("${watermark.file.path:last_vehicle_pass_time.txt}")
+    private String snapshotFileName;
+
+    // 로그 몇 건마다 fsync 할지
+    @Value("${watermark.file.sync-every:100}")
+    private int syncEvery;
+
+    // 마지막 fsync 후 이 시간이 지나면 다음 추가 시 fsync
+    @Value("${watermark.file.sync-interval-ms:1000}")
+    private long syncIntervalMs;
+
+    // 로그가 이 건수를 넘으면 스냅샷으로 합침
+    @Value("${watermark.file.compact-threshold:10000}")
+    private int compactThreshold;
+
+    private FileChannel logChannel;
+    private int logEntries = 0;
+    private int unsyncedEntries = 0;
+    private long lastSyncAt = 0L;
+
+    private Path snapshotPath() {
+        return Paths.get(snapshotFileName);
+    }
+
+    private Path logPath() {
+        return Paths.get(snapshotFileName + ".log");
+    }
+
+    private Path tempPath() {
+        return Paths.get(snapshotFileName + ".tmp");
+    }
+
+    /**
+     * 스냅샷을 읽고 로그를 다시 적용한 결과를 반환한다. 읽을 수 없는 줄과 줄바꿈 없이 끊긴 로그 마지막 줄은 건너뛴다.
+     * 스냅샷을 쓰다가 종료되어 남은 임시 파일은 교체되지 않은 것이므로 삭제한다.
+     *
+     * @return 장소별 마지막 통과 시간(파일이 없으면 빈 Map)
+     * @throws IOException 파일 읽기 실패 시
+     */
+    public synchronized Map<Integer, Timestamp> load() throws IOException {
+        Map<Integer, Timestamp> watermarks = new HashMap<>();
+        Path snapshot = snapshotPath();
+        if (Files.exists(snapshot)) {
+            for (String line : Files.readAllLines(snapshot)) {
+                String[] parts = line.split(",");
+                try {
+                    watermarks.put(Integer.parseInt(parts[0]), Timestamp.valueOf(parts[1]));
+                } catch (RuntimeException e) {
+                    logger.warn("Skipping unreadable watermark snapshot line: {}", line);
+                }
+            }
+        }
+
+        if (Files.deleteIfExists(tempPath())) {
+            logger.info("Removed leftover watermark snapshot temp file {}", tempPath());
+        }
+
+        Path log = logPath();
+        int replayed = 0;
+        if (Files.exists(log)) {
+            List<String> lines = Files.readAllLines(log, StandardCharsets.US_ASCII);
+            if (!lines.isEmpty() && !endsWithNewline(log)) {
+                // 쓰다가 끊긴 줄은 숫자가 잘려도 읽힐 수 있으므로(예: 12,1716) 적용하지 않음
+                logger.warn("Skipping torn watermark log line: {}", lines.remove(lines.size() - 1));
+            }
+            for (String line : lines) {
+                String[] parts = line.split(",");
+                try {
+                    Timestamp passTime = new Timestamp(Long.parseLong(parts[1]));
+                    watermarks.merge(Integer.parseInt(parts[0]), passTime, (a, b) -> a.after(b) ? a : b);
+                    replayed++;
+                } catch (RuntimeException e) {
+                    logger.warn("Skipping unreadable watermark log line: {}", line);
+                }
+            }
+        }
+        if (replayed > 0) {
+            logger.info("Replayed {} watermark log entries after the last snapshot", replayed);
+        }
+        return watermarks;
+    }
+
+    /**
+     * 장소 하나의 진행 상황을 로그에 추가한다. fsync 는 묶어서 수행한다.
+     *
+     * @param siteId   장소 ID
+     * @param passTime 마지막 통과 시간
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public synchronized void append(Integer siteId, Timestamp passTime) throws IOException {
+        FileChannel channel = openLog();
+        ByteBuffer line = ByteBuffer.wrap((siteId + "," + passTime.getTime() + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        logEntries++;
+        unsyncedEntries++;
+        long now = System.currentTimeMillis();
+        if (unsyncedEntries >= syncEvery || now - lastSyncAt >= syncIntervalMs) {
+            sync();
+        }
+    }
+
+    /**
+     * 로그가 compact-threshold 를 넘었는지 여부
+     */
+    public synchronized boolean needsCompaction() {
+        return logEntries >= compactThreshold;
+    }
+
+    /**
+     * 아직 fsync 되지 않은 로그를 디스크에 반영한다.
+     *
+     * @throws IOException fsync 실패 시
+     */
+    public synchronized void sync() throws IOException {
+        if (logChannel != null && unsyncedEntries > 0) {
+            logChannel.force(false);
+        }
+        unsyncedEntries = 0;
+        lastSyncAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 전체 watermark 를 스냅샷으로 저장하고 로그를 비운다.
+     * 임시 파일에 쓰고 fsync 한 뒤 원자적 이름 변경으로 교체하므로, 중간에 종료되어도 이전 스냅샷이나 새 스냅샷 중 하나가 온전히 남는다.
+     *
+     * @param watermarks 장소별 마지막 통과 시간
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public synchronized void writeSnapshot(Map<Integer, Timestamp> watermarks) throws IOException {
+        writeSnapshot(() -> watermarks);
+    }
+
+    /**
+     * 잠금을 잡은 뒤에 스냅샷 값을 만들어 저장한다.
+     * 로그 추가(append)보다 메모리 갱신이 먼저 일어나므로, 잠금 안에서 만든 스냅샷에는 비워질 로그의 내용이 모두 들어 있다.
+     *
+     * @param watermarks 장소별 마지막 통과 시간 공급 함수
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public synchronized void writeSnapshot(Supplier<Map<Integer, Timestamp>> watermarks) throws IOException {
+        Map<Integer, Timestamp> snapshot = watermarks.get();
+        Path temp = tempPath();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            for (Map.Entry<Integer, Timestamp> entry : new TreeMap<>(snapshot).entrySet()) {
+                writer.write(entry.getKey() + "," + entry.getValue().toString());
+                writer.newLine();
+            }
+            writer.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, snapshotPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.warn("Atomic move not supported for {}, falling back to replace", snapshotPath());
+            Files.move(temp, snapshotPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory();
+
+        // 스냅샷에 모두 반영되었으므로 로그를 비움
+        FileChannel channel = openLog();
+        channel.truncate(0);
+        channel.force(true);
+        logEntries = 0;
+        unsyncedEntries = 0;
+        lastSyncAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 로그 파일을 추가 모드로 연다.
+     */
+    private FileChannel openLog() throws IOException {
+        if (logChannel == null || !logChannel.isOpen()) {
+            logChannel = FileChannel.open(logPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (logEntries == 0) {
+                logEntries = repairLog(logChannel); // 이전 실행에서 남은 로그 건수
+            }
+        }
+        return logChannel;
+    }
+
+    /**
+     * 이전 실행에서 남은 로그의 완전한 줄 수를 센다. 쓰다가 끊긴 마지막 줄이 있으면 다음 줄이 이어 붙지 않도록 잘라낸다.
+     */
+    private int repairLog(FileChannel channel) throws IOException {
+        byte[] bytes = Files.readAllBytes(logPath());
+        int lines = 0;
+        int end = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+                end = i + 1;
+            }
+        }
+        if (end < bytes.length) {
+            logger.warn("Truncating torn watermark log line: {}", new String(bytes, end, bytes.length - end, StandardCharsets.US_ASCII));
+            channel.truncate(end);
+            channel.force(false);
+        }
+        return lines;
+    }
+
+    /**
+     * 파일이 비어 있거나 줄바꿈으로 끝나는지 여부
+     */
+    private static boolean endsWithNewline(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * 이름 변경이 디스크에 반영되도록 디렉터리를 fsync 한다(지원하지 않는 OS 에서는 무시).
+     */
+    private void syncDirectory() {
+        Path directory = snapshotPath().toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory fsync not supported for {}", directory);
+        }
+    }
+
+    /**
+     * 종료 시 남은 로그를 fsync 하고 닫는다.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (logChannel == null) {
+            return;
+        }
+        try {
+            sync();
+            logChannel.close();
+        } catch (IOException e) {
+            logger.error("Failed to close watermark log", e);
+        }
+    }
+}
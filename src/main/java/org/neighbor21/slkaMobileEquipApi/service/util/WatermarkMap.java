@@ -0,0 +1,93 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * packageName    : org.neighbor21.slkaMobileEquipApi.service.util
+ * fileName       : WatermarkMap.java
+ * author         : kjg08
+ * date           : 26. 10. 18.
+ * description    : 장소별 마지막 차량 통과 시간(watermark)을 보관하는 락 없는 Map.
+ * 값은 장소마다 AtomicLong(epoch millis) 하나이고 CAS 로만 올라가므로 여러 스레드가 동시에 갱신해도 시간이 뒤로 가지 않는다.
+ * snapshot 은 쓰기를 막지 않고 복사본을 만든다. 각 값은 실제로 기록된 적이 있는 값이므로 저장해도 진행 위치를 앞지르지 않는다.
+ * ===========================================================
+ * DATE              AUTHOR             NOTE
+ * -----------------------------------------------------------
+ * 26. 10. 18.        kjg08           최초 생성
+ */
+public class WatermarkMap {
+    private final ConcurrentHashMap<Integer, AtomicLong> watermarks = new ConcurrentHashMap<>();
+
+    /**
+     * 장소의 watermark 를 passTimeMillis 로 올린다. 현재 값보다 작거나 같으면 바꾸지 않는다.
+     *
+     * @param siteId         장소 ID
+     * @param passTimeMillis 통과 시간(epoch millis)
+     * @return 값이 올라갔으면 true
+     */
+    public boolean advance(Integer siteId, long passTimeMillis) {
+        AtomicLong watermark = watermarks.get(siteId);
+        if (watermark == null) {
+            AtomicLong created = new AtomicLong(passTimeMillis);
+            watermark = watermarks.putIfAbsent(siteId, created);
+            if (watermark == null) {
+                return true;
+            }
+        }
+        long current = watermark.get();
+        while (passTimeMillis > current) {
+            if (watermark.compareAndSet(current, passTimeMillis)) {
+                return true;
+            }
+            current = watermark.get();
+        }
+        return false;
+    }
+
+    /**
+     * 장소의 watermark
+     *
+     * @param siteId 장소 ID
+     * @return 통과 시간, 없으면 null
+     */
+    public Timestamp get(Integer siteId) {
+        AtomicLong watermark = watermarks.get(siteId);
+        return watermark == null ? null : new Timestamp(watermark.get());
+    }
+
+    /**
+     * 여러 장소의 watermark 를 한 번에 올린다(시작 시 로드).
+     *
+     * @param passTimes 장소 ID 별 통과 시간
+     */
+    public void advanceAll(Map<Integer, Timestamp> passTimes) {
+        passTimes.forEach((siteId, passTime) -> {
+            if (siteId != null && passTime != null) {
+                advance(siteId, passTime.getTime());
+            }
+        });
+    }
+
+    /**
+     * 쓰기를 막지 않고 현재 값의 복사본을 만든다.
+     *
+     * @return 장소 ID 별 통과 시간
+     */
+    public Map<Integer, Timestamp> snapshot() {
+        Map<Integer, Timestamp> snapshot = new HashMap<>(watermarks.size() * 4 / 3 + 1);
+        watermarks.forEach((siteId, watermark) -> snapshot.put(siteId, new Timestamp(watermark.get())));
+        return snapshot;
+    }
+
+    public int size() {
+        return watermarks.size();
+    }
+
+    public boolean isEmpty() {
+        return watermarks.isEmpty();
+    }
+}
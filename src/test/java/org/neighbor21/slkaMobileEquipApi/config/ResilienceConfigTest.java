@@ -0,0 +1,65 @@
+package org.neighbor21.slkaMobileEquipApi.config;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import kong.unirest.UnirestException;
+import kong.unirest.UnirestParsingException;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.service.client.AtlystHttpStatusException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceConfigTest {
+
+    @Test
+    void requestFailuresCount() {
+        assertTrue(ResilienceConfig.isApiFailure(new UnirestException(new SocketTimeoutException("connect timed out"))));
+        assertTrue(ResilienceConfig.isApiFailure(new AtlystHttpStatusException(503, "http://atlyst/individual_vehicles")));
+    }
+
+    @Test
+    void socketTimeoutWhileReadingBodyCounts() {
+        assertTrue(ResilienceConfig.isApiFailure(readerFailure(new SocketTimeoutException("Read timed out"))));
+    }
+
+    @Test
+    void connectionResetWhileReadingBodyCounts() {
+        assertTrue(ResilienceConfig.isApiFailure(readerFailure(new SocketException("Connection reset"))));
+    }
+
+    @Test
+    void truncatedGzipBodyCounts() {
+        assertTrue(ResilienceConfig.isApiFailure(readerFailure(new EOFException("Unexpected end of ZLIB input stream"))));
+    }
+
+    @Test
+    void malformedJsonDoesNotCount() {
+        assertFalse(ResilienceConfig.isApiFailure(readerFailure(new JsonParseException(null, "Unexpected character"))));
+        assertFalse(ResilienceConfig.isApiFailure(readerFailure(JsonMappingException.from((JsonParser) null, "Cannot deserialize"))));
+    }
+
+    @Test
+    void cancelledByConsumerDoesNotCount() {
+        assertFalse(ResilienceConfig.isApiFailure(new UnirestParsingException("", new CancellationException("Catch-up cancelled"))));
+    }
+
+    @Test
+    void otherReaderErrorsDoNotCount() {
+        assertFalse(ResilienceConfig.isApiFailure(new UnirestParsingException("", new IllegalStateException("bad record"))));
+    }
+
+    /**
+     * AtlystHttpClient 의 reader 가 IOException 을 던졌을 때 Unirest 가 돌려주는 형태
+     */
+    private static UnirestParsingException readerFailure(IOException cause) {
+        return new UnirestParsingException("", new UncheckedIOException(cause));
+    }
+}
@@ -0,0 +1,161 @@
+package org.neighbor21.slkaMobileEquipApi.hendler;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.service.MCATLYSTApiService;
+import org.neighbor21.slkaMobileEquipApi.service.codec.AtlystJsonCodec;
+import org.neighbor21.slkaMobileEquipApi.service.client.AtlystHttpClient;
+import org.neighbor21.slkaMobileEquipApi.service.client.AtlystStubServer;
+import org.neighbor21.slkaMobileEquipApi.service.client.UnirestAtlystTransport;
+import org.neighbor21.slkaMobileEquipApi.service.conversion.VehiclePassService;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.AdaptivePollScheduler;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.CatchUpPager;
+import org.neighbor21.slkaMobileEquipApi.service.fetch.SiteRetryQueue;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.VehicleUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 실제 HTTP 경로(stub 서버 → 연결 풀 클라이언트 → AtlystTransport → CatchUpPager)로 장소 하나를 처리해서
+ * 오류 응답을 받은 장소가 성공으로 처리되지 않고 재시도 대기열로 가는지 확인한다. DB 는 사용하지 않는다.
+ */
+class ScheduledTasksHandlerTest {
+
+    private static final int SITE_ID = 1;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtlystStubServer stubServer = new AtlystStubServer();
+    private final AtlystHttpClient httpClient = new AtlystHttpClient();
+    private final CatchUpPager catchUpPager = new CatchUpPager();
+    private final SiteRetryQueue siteRetryQueue = new SiteRetryQueue();
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("individual_vehicles");
+    private final ScheduledTasksHandler handler = new ScheduledTasksHandler();
+
+    /**
+     * 진행 위치를 파일/DB 없이 고정값으로 돌려준다.
+     */
+    private static final class FixedWatermark extends VehicleUtils.LastVehiclePassTimeManager {
+        private final Timestamp watermark = new Timestamp(System.currentTimeMillis() - Duration.ofMinutes(10).toMillis());
+
+        @Override
+        public Timestamp getLastVehiclePassTime(Integer siteId) {
+            return watermark;
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", meterRegistry);
+        FixedWatermark watermark = new FixedWatermark();
+
+        ReflectionTestUtils.setField(stubServer, "transport", "stub");
+        ReflectionTestUtils.setField(stubServer, "threads", 2);
+        ReflectionTestUtils.setField(stubServer, "sites", 1);
+        ReflectionTestUtils.setField(stubServer, "surveyPeriodsPerSite", 1);
+        ReflectionTestUtils.setField(stubServer, "vehiclesPerHour", 1000.0);
+        ReflectionTestUtils.setField(stubServer, "peakHours", new double[]{8, 17.5});
+        ReflectionTestUtils.setField(stubServer, "peakWidthHours", 1.5);
+        ReflectionTestUtils.setField(stubServer, "peakFactor", 3.0);
+        ReflectionTestUtils.setField(stubServer, "nightFactor", 0.2);
+        ReflectionTestUtils.setField(stubServer, "northShare", 0.5);
+        ReflectionTestUtils.setField(stubServer, "laneWeights", new double[]{0.5, 0.5});
+        ReflectionTestUtils.setField(stubServer, "classes", "Short Cycle:0.3,Long Cycle:0.7");
+        ReflectionTestUtils.setField(stubServer, "errorRate", 1.0); // 모든 요청에 HTTP 503
+        ReflectionTestUtils.setField(stubServer, "zone", "Asia/Colombo");
+        stubServer.start();
+
+        ReflectionTestUtils.setField(httpClient, "connectTimeout", 5_000);
+        ReflectionTestUtils.setField(httpClient, "socketTimeout", 5_000);
+        ReflectionTestUtils.setField(httpClient, "maxTotal", 4);
+        ReflectionTestUtils.setField(httpClient, "maxPerRoute", 4);
+        ReflectionTestUtils.setField(httpClient, "keepAliveMs", 60_000L);
+        ReflectionTestUtils.setField(httpClient, "validateAfterInactivityMs", 2_000);
+        ReflectionTestUtils.setField(httpClient, "connectionTtlMs", 300_000L);
+        ReflectionTestUtils.setField(httpClient, "gzipBufferSize", 8192);
+        ReflectionTestUtils.setField(httpClient, "pipelineMetrics", pipelineMetrics);
+        httpClient.init();
+
+        UnirestAtlystTransport transport = new UnirestAtlystTransport();
+        ReflectionTestUtils.setField(transport, "apiKey", "test");
+        ReflectionTestUtils.setField(transport, "atlystHttpClient", httpClient);
+        ReflectionTestUtils.setField(transport, "atlystStubServer", stubServer);
+        ReflectionTestUtils.setField(transport, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(transport, "individualVehiclesCircuitBreaker", circuitBreaker);
+        ReflectionTestUtils.setField(transport, "individualVehiclesBulkhead", Bulkhead.ofDefaults("individual_vehicles"));
+        transport.init();
+
+        AtlystJsonCodec codec = new AtlystJsonCodec();
+        ReflectionTestUtils.setField(codec, "pipelineMetrics", pipelineMetrics);
+
+        MCATLYSTApiService apiService = new MCATLYSTApiService();
+        ReflectionTestUtils.setField(apiService, "atlystTransport", transport);
+        ReflectionTestUtils.setField(apiService, "atlystJsonCodec", codec);
+        ReflectionTestUtils.setField(apiService, "lastVehiclePassTimeManager", watermark);
+
+        ReflectionTestUtils.setField(catchUpPager, "mcAtlystApiService", apiService);
+        ReflectionTestUtils.setField(catchUpPager, "lastVehiclePassTimeManager", watermark);
+        ReflectionTestUtils.setField(catchUpPager, "maxPages", 10);
+        ReflectionTestUtils.setField(catchUpPager, "maxMillis", 60_000L);
+        ReflectionTestUtils.setField(catchUpPager, "prefetchChunks", 2);
+
+        ReflectionTestUtils.setField(siteRetryQueue, "enabled", true);
+        ReflectionTestUtils.setField(siteRetryQueue, "initialBackoffMs", 10_000L);
+        ReflectionTestUtils.setField(siteRetryQueue, "multiplier", 2.0);
+        ReflectionTestUtils.setField(siteRetryQueue, "maxBackoffMs", 1_800_000L);
+        ReflectionTestUtils.setField(siteRetryQueue, "randomizationFactor", 0.0);
+
+        Retry retry = Retry.of("apiRetry", RetryConfig.custom().maxAttempts(2).waitDuration(Duration.ofMillis(10)).build());
+        ReflectionTestUtils.setField(handler, "streamingEnabled", true);
+        ReflectionTestUtils.setField(handler, "parallelFetchEnabled", false);
+        ReflectionTestUtils.setField(handler, "streamingChunkSize", 2000);
+        ReflectionTestUtils.setField(handler, "retry", retry);
+        ReflectionTestUtils.setField(handler, "catchUpPager", catchUpPager);
+        ReflectionTestUtils.setField(handler, "vehiclePassService", new VehiclePassService());
+        ReflectionTestUtils.setField(handler, "adaptivePollScheduler", new AdaptivePollScheduler());
+        ReflectionTestUtils.setField(handler, "siteRetryQueue", siteRetryQueue);
+        ReflectionTestUtils.setField(handler, "pipelineMetrics", pipelineMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catchUpPager.shutdown();
+        httpClient.close();
+        stubServer.stop();
+    }
+
+    @Test
+    void serverErrorSendsSiteToRetryQueue() {
+        List<Integer> processedSiteIds = new ArrayList<>();
+
+        ReflectionTestUtils.invokeMethod(handler, "processSites", List.of(SITE_ID), processedSiteIds);
+
+        // 빈 응답으로 성공 처리되지 않고, apiRetry 로 한 번 더 호출한 뒤 재시도 대기열로 감
+        assertTrue(processedSiteIds.isEmpty());
+        assertEquals(Map.of(SITE_ID, 1), siteRetryQueue.getFailures());
+        assertEquals(2, stubServer.getFailed());
+        assertEquals(2, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+
+        Timer failed = meterRegistry.find("slka.site.fetch").tag("outcome", PipelineMetrics.FAILURE).timer();
+        assertNotNull(failed);
+        assertEquals(1, failed.count());
+        assertNull(meterRegistry.find("slka.site.fetch").tag("outcome", PipelineMetrics.SUCCESS).timer());
+        assertFalse(catchUpPager.getBacklogs().get(SITE_ID).caughtUp());
+    }
+}
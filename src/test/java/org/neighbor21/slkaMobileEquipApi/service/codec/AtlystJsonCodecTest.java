@@ -0,0 +1,165 @@
+package org.neighbor21.slkaMobileEquipApi.service.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtlystJsonCodecTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void parseIsoMillisMatchesOffsetDateTime() {
+        String[] timestamps = {
+                "2024-05-21T10:15:30Z",
+                "2024-05-21T10:15:30+09:00",
+                "2024-05-21T10:15:30-03:30",
+                "2024-05-21T10:15:30+0530",
+                "2024-05-21T10:15:30-0100",
+                "2024-05-21T10:15:30+05",
+                "2024-05-21T10:15:30.1Z",
+                "2024-05-21T10:15:30.12Z",
+                "2024-05-21T10:15:30.123Z",
+                "2024-05-21T10:15:30.1239Z",
+                "2024-05-21T10:15:30.123456789+09:00",
+                "2024-02-29T23:59:59.999Z",
+                "2000-02-29T00:00:00Z",
+                "1969-12-31T23:59:59.5Z",
+                "1900-03-01T00:00:00-18:00",
+                "2100-12-31T23:59:59+18:00",
+        };
+        for (String timestamp : timestamps) {
+            long expected = OffsetDateTime.parse(timestamp.replaceFirst("([+-]\\d{2})(\\d{2})$", "$1:$2")
+                    .replaceFirst("([+-]\\d{2})$", "$1:00")).toInstant().toEpochMilli();
+            assertEquals(expected, parse(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    void parseIsoMillisWithoutOffsetIsUtc() {
+        assertEquals(LocalDateTime.parse("2024-05-21T10:15:30.250").toInstant(ZoneOffset.UTC).toEpochMilli(), parse("2024-05-21T10:15:30.250"));
+        assertEquals(LocalDateTime.parse("2024-05-21T10:15:30").toInstant(ZoneOffset.UTC).toEpochMilli(), parse("2024-05-21 10:15:30"));
+    }
+
+    @Test
+    void parseIsoMillisRejectsDatesThatDoNotExist() {
+        String[] invalid = {
+                "2024-02-30T00:00:00Z",
+                "2024-02-31T00:00:00Z",
+                "2023-02-29T00:00:00Z",
+                "1900-02-29T00:00:00Z",
+                "2024-04-31T00:00:00Z",
+                "2024-13-01T00:00:00Z",
+                "2024-00-10T00:00:00Z",
+                "2024-05-00T00:00:00Z",
+                "2024-05-21T24:00:00Z",
+                "2024-05-21T10:60:00Z",
+                "2024-05-21T10:15:60Z",
+                "2024-05-21T10:15:30+19:00",
+                "2024-05-21T10:15:30+09:60",
+                "2024-05-21T10:15:30.Z",
+                "2024-05-21T10:15:30+09:0",
+                "2024-05-21T10:15:30ZZ",
+                "2024-05-21",
+                "2024/05/21T10:15:30Z",
+        };
+        for (String timestamp : invalid) {
+            assertEquals(Long.MIN_VALUE, parse(timestamp), timestamp);
+        }
+    }
+
+    @Test
+    void readEpochMillisRejectsInvalidDateInsteadOfRollingOver() throws IOException {
+        try (JsonParser parser = parser("\"2024-02-31T10:00:00Z\"")) {
+            assertThrows(JsonParseException.class, () -> AtlystJsonCodec.readEpochMillis(parser, parser.currentToken()));
+        }
+        try (JsonParser parser = parser("1716286530000")) {
+            assertEquals(1716286530000L, AtlystJsonCodec.readEpochMillis(parser, parser.currentToken()));
+        }
+    }
+
+    @Test
+    void daysFromCivilMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1600, 1, 1); date.isBefore(LocalDate.of(2401, 1, 1)); date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), AtlystJsonCodec.daysFromCivil(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), date.toString());
+        }
+    }
+
+    @Test
+    void readScaledRoundsHalfUpLikeBigDecimal() throws IOException {
+        String[] values = {
+                "0", "7", "12.3", "12.34", "12.345", "12.344", "12.3449", "0.005", "0.004", "0.995", "99.999",
+                "-0.004", "-0.005", "-12.345", "-12.344", "-7",
+                "1.5e2", "1.2345E1", "-1.2345e+1", "5E-3", "4E-3", "1234567.999", "12345678901e-3",
+                "21474836.47", "-21474836.47",
+        };
+        for (String value : values) {
+            assertEquals(expectedScaled(value), scaled(value), value);
+        }
+    }
+
+    @Test
+    void readScaledMatchesBigDecimalForRandomValues() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextInt(20_000_000) - 10_000_000L, random.nextInt(6));
+            String text = value.toPlainString();
+            assertEquals(expectedScaled(text), scaled(text), text);
+        }
+    }
+
+    @Test
+    void readScaledAcceptsNumericStrings() throws IOException {
+        try (JsonParser parser = parser("\"3.456\"")) {
+            assertEquals(346, AtlystJsonCodec.readScaled(parser));
+        }
+    }
+
+    @Test
+    void readScaledRejectsOutOfRangeAndInvalidValues() throws IOException {
+        for (String value : new String[]{"21474836.48", "1234567890", "1e10"}) {
+            try (JsonParser parser = parser(value)) {
+                assertThrows(JsonParseException.class, () -> AtlystJsonCodec.readScaled(parser), value);
+            }
+        }
+        try (JsonParser parser = parser("\"fast\"")) {
+            assertThrows(JsonParseException.class, () -> AtlystJsonCodec.readScaled(parser));
+        }
+    }
+
+    private static long parse(String timestamp) {
+        char[] buf = ("  " + timestamp + "  ").toCharArray();
+        return AtlystJsonCodec.parseIsoMillis(buf, 2, timestamp.length());
+    }
+
+    private static int scaled(String value) throws IOException {
+        try (JsonParser parser = parser(value)) {
+            return AtlystJsonCodec.readScaled(parser);
+        }
+    }
+
+    private static int expectedScaled(String value) {
+        return new BigDecimal(value).setScale(VehiclePassChunk.SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    private static JsonParser parser(String json) throws IOException {
+        JsonParser parser = JSON.createParser(json);
+        JsonToken token = parser.nextToken();
+        assertNotNull(token, json);
+        return parser;
+    }
+}
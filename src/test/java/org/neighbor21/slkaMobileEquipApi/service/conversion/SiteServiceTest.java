@@ -0,0 +1,104 @@
+package org.neighbor21.slkaMobileEquipApi.service.conversion;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.dto.listSite.ListSiteDTO;
+import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_CUREntity;
+import org.neighbor21.slkaMobileEquipApi.entity.TL_MVMNEQ_LOGEntity;
+import org.neighbor21.slkaMobileEquipApi.service.BatchService;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.SiteFingerprintCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CUR/LOG 저장 실패가 처리 건수와 지문 캐시에 반영되는지 확인한다. DB 는 사용하지 않는다.
+ */
+class SiteServiceTest {
+
+    private final StubBatchService batchService = new StubBatchService();
+    private final SiteFingerprintCache siteFingerprintCache = new SiteFingerprintCache();
+    private final SiteService service = new SiteService();
+
+    private static final class StubBatchService extends BatchService {
+        private boolean curFailing;
+        private boolean logFailing;
+
+        @Override
+        public void upsertCurBatch(List<TL_MVMNEQ_CUREntity> curEntities) throws SQLException {
+            if (curFailing) {
+                throw new SQLException("connection lost", "08006");
+            }
+        }
+
+        @Override
+        public void insertLogBatch(List<TL_MVMNEQ_LOGEntity> logEntities) throws SQLException {
+            if (logFailing) {
+                throw new SQLException("connection lost", "08006");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchService", batchService);
+        ReflectionTestUtils.setField(service, "siteFingerprintCache", siteFingerprintCache);
+        ReflectionTestUtils.setField(service, "pipelineMetrics", pipelineMetrics);
+        ReflectionTestUtils.setField(service, "retry", Retry.of("dbRetry", RetryConfig.custom().maxAttempts(1).waitDuration(Duration.ofMillis(10)).build()));
+    }
+
+    @Test
+    void savedSitesCountCurAndLogRows() {
+        List<ListSiteDTO> sites = List.of(site(1), site(2));
+
+        assertEquals(4, service.saveSiteLogs(sites));
+        assertTrue(siteFingerprintCache.changedSites(sites).isEmpty());
+    }
+
+    @Test
+    void failedCurUpsertIsLeftOutOfCount() {
+        batchService.curFailing = true;
+        List<ListSiteDTO> sites = List.of(site(1), site(2));
+
+        assertEquals(2, service.saveSiteLogs(sites));
+        assertEquals(2, siteFingerprintCache.changedSites(sites).size()); // 다음 주기에 다시 저장
+    }
+
+    @Test
+    void failedLogInsertIsLeftOutOfCount() {
+        batchService.logFailing = true;
+        List<ListSiteDTO> sites = List.of(site(1), site(2));
+
+        assertEquals(2, service.saveSiteLogs(sites));
+        assertEquals(2, siteFingerprintCache.changedSites(sites).size());
+    }
+
+    @Test
+    void nothingSavedCountsZero() {
+        batchService.curFailing = true;
+        batchService.logFailing = true;
+
+        assertEquals(0, service.saveSiteLogs(List.of(site(1))));
+    }
+
+    private static ListSiteDTO site(int siteId) {
+        ListSiteDTO site = new ListSiteDTO();
+        site.setSite_id(siteId);
+        site.setName("Site " + siteId);
+        site.setDescription("A1 Colombo - Kandy");
+        site.setLatitude(6.9271f);
+        site.setLongitude(79.8612f);
+        site.setAsset_management_id("EQ-" + siteId);
+        return site;
+    }
+}
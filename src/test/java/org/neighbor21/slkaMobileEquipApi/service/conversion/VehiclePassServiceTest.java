@@ -0,0 +1,119 @@
+package org.neighbor21.slkaMobileEquipApi.service.conversion;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.dto.individualVehicles.VehiclePassChunk;
+import org.neighbor21.slkaMobileEquipApi.service.BatchService;
+import org.neighbor21.slkaMobileEquipApi.service.util.PipelineMetrics;
+import org.neighbor21.slkaMobileEquipApi.service.util.VehicleUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 차량 간 간격이 LastVehiclePassTimeManager 의 진행 위치를 기준으로 계산되는지 확인한다. DB 는 사용하지 않는다.
+ */
+class VehiclePassServiceTest {
+
+    private static final int SITE_ID = 7;
+    private static final long WATERMARK = 1_716_286_500_000L;
+
+    private final InMemoryWatermark watermark = new InMemoryWatermark();
+    private final StubBatchService batchService = new StubBatchService();
+    private final VehiclePassService service = new VehiclePassService();
+
+    /**
+     * 파일/DB 없이 메모리에만 진행 위치를 기록한다(WatermarkMap 과 같이 더 최신일 때만 갱신).
+     */
+    private static final class InMemoryWatermark extends VehicleUtils.LastVehiclePassTimeManager {
+        private final Map<Integer, Timestamp> passTimes = new HashMap<>();
+
+        @Override
+        public Timestamp findLastVehiclePassTime(Integer siteId) {
+            return passTimes.get(siteId);
+        }
+
+        @Override
+        public void updateLastVehiclePassTime(Integer siteId, Timestamp passTime) {
+            passTimes.merge(siteId, passTime, (a, b) -> a.after(b) ? a : b);
+        }
+    }
+
+    private static final class StubBatchService extends BatchService {
+        private boolean failing;
+
+        @Override
+        public void insertPassChunk(VehiclePassChunk chunk, Checkpoint checkpoint) throws SQLException {
+            if (failing) {
+                throw new SQLException("connection lost", "08006");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        PipelineMetrics pipelineMetrics = new PipelineMetrics();
+        ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchService", batchService);
+        ReflectionTestUtils.setField(service, "retry", Retry.of("dbRetry", RetryConfig.custom().maxAttempts(1).waitDuration(Duration.ofMillis(10)).build()));
+        ReflectionTestUtils.setField(service, "lastVehiclePassTimeManager", watermark);
+        ReflectionTestUtils.setField(service, "pipelineMetrics", pipelineMetrics);
+    }
+
+    @Test
+    void firstIntervalAfterRestartIsMeasuredFromStoredWatermark() {
+        // 재시작 후 파일/DB 에서 읽은 진행 위치만 있는 상태
+        watermark.updateLastVehiclePassTime(SITE_ID, new Timestamp(WATERMARK));
+
+        VehiclePassChunk chunk = chunk(WATERMARK + 4_000L, WATERMARK + 9_500L);
+        assertTrue(service.saveVehiclePassChunk(chunk));
+
+        assertEquals(4, chunk.getIntervalSeconds(0));
+        assertEquals(5, chunk.getIntervalSeconds(1));
+        assertEquals(new Timestamp(WATERMARK + 9_500L), watermark.findLastVehiclePassTime(SITE_ID));
+    }
+
+    @Test
+    void firstIntervalWithoutWatermarkIsZero() {
+        VehiclePassChunk chunk = chunk(WATERMARK, WATERMARK + 3_000L);
+        assertTrue(service.saveVehiclePassChunk(chunk));
+
+        assertEquals(0, chunk.getIntervalSeconds(0));
+        assertEquals(3, chunk.getIntervalSeconds(1));
+    }
+
+    @Test
+    void nextChunkContinuesFromPreviousChunk() {
+        assertTrue(service.saveVehiclePassChunk(chunk(WATERMARK, WATERMARK + 2_000L)));
+
+        VehiclePassChunk next = chunk(WATERMARK + 7_000L);
+        assertTrue(service.saveVehiclePassChunk(next));
+        assertEquals(5, next.getIntervalSeconds(0));
+    }
+
+    @Test
+    void failedInsertDoesNotAdvanceWatermark() {
+        watermark.updateLastVehiclePassTime(SITE_ID, new Timestamp(WATERMARK));
+        batchService.failing = true;
+
+        assertFalse(service.saveVehiclePassChunk(chunk(WATERMARK + 1_000L)));
+        assertEquals(new Timestamp(WATERMARK), watermark.findLastVehiclePassTime(SITE_ID));
+    }
+
+    private static VehiclePassChunk chunk(long... passTimes) {
+        VehiclePassChunk chunk = new VehiclePassChunk(SITE_ID, passTimes.length);
+        for (long passTime : passTimes) {
+            chunk.add(passTime, "North", 1, 1500, 450, "Short Cycle");
+        }
+        return chunk;
+    }
+}
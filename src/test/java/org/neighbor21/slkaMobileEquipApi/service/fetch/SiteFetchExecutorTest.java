@@ -0,0 +1,118 @@
+package org.neighbor21.slkaMobileEquipApi.service.fetch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neighbor21.slkaMobileEquipApi.service.util.ConcurrencyLimiter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 제한 시간을 넘긴 장소의 결과가 작업이 실제로 끝난 뒤에 전달되는지 확인한다.
+ */
+class SiteFetchExecutorTest {
+
+    private static final long SITE_TIMEOUT_MS = 50L;
+    private static final long STUCK_MS = 400L;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    private final ScheduledExecutorService releaser = Executors.newSingleThreadScheduledExecutor();
+    private final SiteFetchExecutor siteFetchExecutor = new SiteFetchExecutor();
+
+    /**
+     * handler 호출을 기록한다. 호출 시점에 작업이 끝났는지 함께 기록한다.
+     */
+    private static final class RecordingHandler implements SiteFetchExecutor.SiteResultHandler<Integer> {
+        private final Map<Integer, Object> outcomes = new ConcurrentHashMap<>();
+        private final Map<Integer, Boolean> finishedWhenReported = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicBoolean> finished;
+
+        private RecordingHandler(Map<Integer, AtomicBoolean> finished) {
+            this.finished = finished;
+        }
+
+        @Override
+        public void onSuccess(Integer siteId, Integer result) {
+            outcomes.put(siteId, result);
+            finishedWhenReported.put(siteId, finished.get(siteId).get());
+        }
+
+        @Override
+        public void onFailure(Integer siteId, Throwable cause) {
+            outcomes.put(siteId, cause);
+            finishedWhenReported.put(siteId, finished.get(siteId).get());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(siteFetchExecutor, "executorService", executorService);
+        ReflectionTestUtils.setField(siteFetchExecutor, "concurrencyLimiter", new ConcurrencyLimiter(1, 1, 2));
+        ReflectionTestUtils.setField(siteFetchExecutor, "siteTimeoutMs", SITE_TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaser.shutdownNow();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void overdueSiteIsReportedOnlyAfterItStops() {
+        Map<Integer, AtomicBoolean> finished = Map.of(1, new AtomicBoolean(), 2, new AtomicBoolean());
+        AtomicBoolean released = new AtomicBoolean();
+        RecordingHandler handler = new RecordingHandler(finished);
+        releaser.schedule(() -> released.set(true), STUCK_MS, TimeUnit.MILLISECONDS);
+
+        int succeeded = siteFetchExecutor.fetchAll(List.of(1, 2), siteId -> {
+            if (siteId == 1) {
+                // 인터럽트에 반응하지 않는 소켓 읽기처럼 풀려날 때까지 멈춰 있다가 읽기 시간 초과로 실패
+                awaitIgnoringInterrupt(released);
+                finished.get(siteId).set(true);
+                throw new SocketTimeoutException("Read timed out");
+            }
+            finished.get(siteId).set(true);
+            return 7;
+        }, handler);
+
+        assertEquals(1, succeeded);
+        assertInstanceOf(TimeoutException.class, handler.outcomes.get(1));
+        assertInstanceOf(SocketTimeoutException.class, ((Throwable) handler.outcomes.get(1)).getCause());
+        assertTrue(handler.finishedWhenReported.get(1), "site 1 reported before its task stopped");
+        assertEquals(7, handler.outcomes.get(2));
+        assertTrue(handler.finishedWhenReported.get(2));
+    }
+
+    @Test
+    void overdueSiteThatCompletesKeepsItsResult() {
+        Map<Integer, AtomicBoolean> finished = Map.of(1, new AtomicBoolean());
+        AtomicBoolean released = new AtomicBoolean();
+        RecordingHandler handler = new RecordingHandler(finished);
+        releaser.schedule(() -> released.set(true), STUCK_MS, TimeUnit.MILLISECONDS);
+
+        int succeeded = siteFetchExecutor.fetchAll(List.of(1), siteId -> {
+            awaitIgnoringInterrupt(released);
+            finished.get(siteId).set(true);
+            return 3;
+        }, handler);
+
+        // 이미 저장까지 끝난 장소는 성공으로 전달(실패로 보고하면 재시도 대기열과 실제 저장 상태가 어긋남)
+        assertEquals(1, succeeded);
+        assertEquals(3, handler.outcomes.get(1));
+        assertTrue(handler.finishedWhenReported.get(1));
+    }
+
+    private static void awaitIgnoringInterrupt(AtomicBoolean released) {
+        while (!released.get()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}
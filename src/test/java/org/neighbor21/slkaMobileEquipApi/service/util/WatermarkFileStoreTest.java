@@ -0,0 +1,165 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatermarkFileStoreTest {
+
+    private static final int THREADS = 8;
+    private static final int SITES = 32;
+    private static final int APPENDS_PER_THREAD = 2_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadReplaysLogOverSnapshot() throws Exception {
+        WatermarkFileStore store = store();
+        store.writeSnapshot(Map.of(1, new Timestamp(1_000L), 2, new Timestamp(5_000L)));
+        store.append(1, new Timestamp(2_000L));
+        store.append(2, new Timestamp(4_000L)); // 스냅샷보다 오래된 값은 무시
+        store.append(3, new Timestamp(3_000L));
+        store.append(1, new Timestamp(1_500L));
+        store.close();
+
+        Map<Integer, Timestamp> loaded = store().load();
+
+        assertEquals(3, loaded.size());
+        assertEquals(2_000L, loaded.get(1).getTime());
+        assertEquals(5_000L, loaded.get(2).getTime());
+        assertEquals(3_000L, loaded.get(3).getTime());
+    }
+
+    @Test
+    void tornFinalLogLineIsSkippedAndNotJoinedWithNextAppend() throws Exception {
+        WatermarkFileStore store = store();
+        store.writeSnapshot(Map.of(1, new Timestamp(1_000L)));
+        store.append(1, new Timestamp(1_716_286_530_000L));
+        store.close();
+        // 줄을 쓰다가 종료됨: 숫자가 잘려도 읽히는 형태
+        Files.write(logFile(), "12,1716".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        WatermarkFileStore restarted = store();
+        Map<Integer, Timestamp> loaded = restarted.load();
+        assertEquals(Map.of(1, new Timestamp(1_716_286_530_000L)), loaded);
+
+        restarted.append(3, new Timestamp(1_716_286_540_000L));
+        restarted.close();
+
+        assertEquals(List.of("1,1716286530000", "3,1716286540000"), Files.readAllLines(logFile()));
+        Map<Integer, Timestamp> reloaded = store().load();
+        assertEquals(2, reloaded.size());
+        assertEquals(1_716_286_540_000L, reloaded.get(3).getTime());
+        assertNull(reloaded.get(12));
+    }
+
+    @Test
+    void leftoverTempSnapshotIsIgnoredAndRemoved() throws Exception {
+        WatermarkFileStore store = store();
+        store.writeSnapshot(Map.of(1, new Timestamp(1_000L)));
+        store.close();
+        // 스냅샷 교체 전에 종료되어 남은 임시 파일(내용이 잘려 있을 수 있음)
+        Path temp = Path.of(snapshotFile() + ".tmp");
+        Files.writeString(temp, "1," + new Timestamp(9_000L) + "\n2,2024-05-");
+
+        WatermarkFileStore restarted = store();
+        Map<Integer, Timestamp> loaded = restarted.load();
+
+        assertEquals(Map.of(1, new Timestamp(1_000L)), loaded);
+        assertFalse(Files.exists(temp));
+
+        restarted.writeSnapshot(Map.of(1, new Timestamp(2_000L)));
+        restarted.close();
+        assertEquals(2_000L, store().load().get(1).getTime());
+        assertFalse(Files.exists(temp));
+    }
+
+    @Test
+    void compactionRacingWithAppendKeepsEveryUpdate() throws Exception {
+        WatermarkFileStore store = store();
+        WatermarkMap memory = new WatermarkMap();
+        AtomicLongArray expected = new AtomicLongArray(SITES);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger compactions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // LastVehiclePassTimeManager 와 같은 순서: 메모리를 먼저 올리고 로그에 추가
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < APPENDS_PER_THREAD; i++) {
+                    int site = random.nextInt(SITES);
+                    long passTime = random.nextLong(1, 1_000_000_000_000L);
+                    expected.accumulateAndGet(site, passTime, Math::max);
+                    if (memory.advance(site, passTime)) {
+                        store.append(site, new Timestamp(passTime));
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> compactor = executor.submit(() -> {
+            start.await();
+            while (writing.get()) {
+                store.writeSnapshot(memory::snapshot);
+                compactions.incrementAndGet();
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        compactor.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        store.close();
+
+        assertTrue(compactions.get() > 0);
+        Map<Integer, Timestamp> loaded = store().load();
+        for (int site = 0; site < SITES; site++) {
+            if (expected.get(site) == 0L) {
+                assertNull(loaded.get(site));
+            } else {
+                assertEquals(expected.get(site), loaded.get(site).getTime(), "site " + site);
+            }
+        }
+    }
+
+    private WatermarkFileStore store() {
+        WatermarkFileStore store = new WatermarkFileStore();
+        ReflectionTestUtils.setField(store, "snapshotFileName", snapshotFile().toString());
+        ReflectionTestUtils.setField(store, "syncEvery", 100);
+        ReflectionTestUtils.setField(store, "syncIntervalMs", 1_000L);
+        ReflectionTestUtils.setField(store, "compactThreshold", 10_000);
+        return store;
+    }
+
+    private Path snapshotFile() {
+        return dir.resolve("last_vehicle_pass_time.txt");
+    }
+
+    private Path logFile() {
+        return Path.of(snapshotFile() + ".log");
+    }
+}
@@ -0,0 +1,102 @@
+package org.neighbor21.slkaMobileEquipApi.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatermarkMapTest {
+
+    private static final int THREADS = 16;
+    private static final int SITES = 64;
+    private static final int UPDATES_PER_THREAD = 200_000;
+
+    @Test
+    void advanceNeverMovesBackwards() {
+        WatermarkMap map = new WatermarkMap();
+
+        assertTrue(map.advance(1, 1_000L));
+        assertFalse(map.advance(1, 500L));
+        assertFalse(map.advance(1, 1_000L));
+        assertTrue(map.advance(1, 2_000L));
+        assertEquals(2_000L, map.get(1).getTime());
+        assertNull(map.get(2));
+    }
+
+    @Test
+    void concurrentAdvanceKeepsMaximumPerSite() throws Exception {
+        WatermarkMap map = new WatermarkMap();
+        AtomicLongArray expected = new AtomicLongArray(SITES);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                    int site = random.nextInt(SITES);
+                    long passTime = random.nextLong(1, 1_000_000_000L);
+                    map.advance(site, passTime);
+                    expected.accumulateAndGet(site, passTime, Math::max);
+                }
+                return null;
+            }));
+        }
+
+        // 쓰는 동안 읽은 값과 스냅샷이 장소마다 뒤로 가지 않는지 확인
+        Future<?> reader = executor.submit(() -> {
+            long[] lastSeen = new long[SITES];
+            start.await();
+            while (writing.get()) {
+                for (int site = 0; site < SITES; site++) {
+                    Timestamp value = map.get(site);
+                    if (value != null) {
+                        assertTrue(value.getTime() >= lastSeen[site], "watermark moved backwards for site " + site);
+                        lastSeen[site] = value.getTime();
+                    }
+                }
+            }
+            return null;
+        });
+        Future<?> snapshotter = executor.submit(() -> {
+            Map<Integer, Timestamp> previous = Map.of();
+            start.await();
+            while (writing.get()) {
+                Map<Integer, Timestamp> snapshot = map.snapshot();
+                for (Map.Entry<Integer, Timestamp> entry : previous.entrySet()) {
+                    Timestamp current = snapshot.get(entry.getKey());
+                    assertNotNull(current, "site disappeared from snapshot " + entry.getKey());
+                    assertFalse(current.before(entry.getValue()), "snapshot moved backwards for site " + entry.getKey());
+                }
+                previous = snapshot;
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        reader.get(10, TimeUnit.SECONDS);
+        snapshotter.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(SITES, map.size());
+        Map<Integer, Timestamp> snapshot = map.snapshot();
+        for (int site = 0; site < SITES; site++) {
+            assertEquals(expected.get(site), map.get(site).getTime());
+            assertEquals(expected.get(site), snapshot.get(site).getTime());
+        }
+    }
+}